@@ -1,5 +1,5 @@
 import React, { createContext, useContext, useState, useEffect } from 'react';
-import { Api } from '../services/api';
+import { Api, saveTokens, clearTokens } from '../services/api';
 
 const AuthContext = createContext();
 
@@ -17,7 +17,7 @@ export const AuthProvider = ({ children }) => {
                 })
                 .catch(err => {
                     console.error('Error fetching user profile:', err);
-                    localStorage.removeItem('jwt_token');
+                    clearTokens();
                     setUser(null);
                 })
                 .finally(() => setLoading(false));
@@ -28,16 +28,22 @@ export const AuthProvider = ({ children }) => {
 
     const login = async (email, password) => {
         const data = await Api.login(email, password);
-        localStorage.setItem('jwt_token', data.token);
+        saveTokens(data);
 
         // Fetch user profile after login
         const userProfile = await Api.getCurrentUser();
-        setUser({ token: data.token, email: userProfile.email, role: userProfile.role });
+        setUser({ token: localStorage.getItem('jwt_token'), email: userProfile.email, role: userProfile.role });
         return data;
     };
 
-    const logout = () => {
-        localStorage.removeItem('jwt_token');
+    const logout = async () => {
+        // Revoke both tokens on the server; log out locally even if that fails
+        try {
+            await Api.logout();
+        } catch (err) {
+            console.error('Error revoking session:', err);
+        }
+        clearTokens();
         setUser(null);
         window.location.href = '/login';
     };
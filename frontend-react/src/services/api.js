@@ -137,14 +137,62 @@ api.interceptors.request.use(config => {
     return config;
 });
 
-// Interceptor for unauthorized errors
+// Stores the token pair returned by login/register/refresh
+export function saveTokens(data) {
+    localStorage.setItem('jwt_token', data.token);
+    if (data.refreshToken) {
+        localStorage.setItem('refresh_token', data.refreshToken);
+    }
+}
+
+export function clearTokens() {
+    localStorage.removeItem('jwt_token');
+    localStorage.removeItem('refresh_token');
+}
+
+// Access tokens last 15 minutes: a single refresh is shared by every request
+// that fails at the same time, so the refresh token is only rotated once
+let refreshPromise = null;
+
+function refreshTokens() {
+    if (!refreshPromise) {
+        const refreshToken = localStorage.getItem('refresh_token');
+        refreshPromise = (refreshToken
+            ? axios.post(`${api.defaults.baseURL}/usuarios/refresh`, { refreshToken }, {
+                headers: { 'ngrok-skip-browser-warning': 'true' }
+            }).then(response => {
+                saveTokens(response.data);
+                return response.data.token;
+            })
+            : Promise.reject(new Error('No refresh token')))
+            .finally(() => { refreshPromise = null; });
+    }
+    return refreshPromise;
+}
+
+// Interceptor for unauthorized errors: refresh once and retry, otherwise back to login
 api.interceptors.response.use(
     response => response.data,
-    error => {
-        if (error.response && (error.response.status === 401 || error.response.status === 403)) {
-            localStorage.removeItem('jwt_token');
-            if (window.location.pathname !== '/login') {
-                window.location.href = '/login';
+    async error => {
+        const config = error.config;
+        const status = error.response && error.response.status;
+        if (status === 401 || status === 403) {
+            const isAuthCall = config && /\/usuarios\/(login|register|refresh|logout)$/.test(config.url || '');
+            if (config && !config._retried && !isAuthCall && localStorage.getItem('refresh_token')) {
+                config._retried = true;
+                try {
+                    const token = await refreshTokens();
+                    config.headers.Authorization = `Bearer ${token}`;
+                    return api(config);
+                } catch (refreshError) {
+                    // Refresh token expired or revoked: fall through to login
+                }
+            }
+            if (!isAuthCall) {
+                clearTokens();
+                if (window.location.pathname !== '/login') {
+                    window.location.href = '/login';
+                }
             }
         }
         return Promise.reject(error);
@@ -167,6 +215,12 @@ export const Api = {
         return api.post('/usuarios/register', userData);
     },
 
+    async logout() {
+        if (USE_MOCK_DATA) return;
+        const refreshToken = localStorage.getItem('refresh_token');
+        return api.post('/usuarios/logout', refreshToken ? { refreshToken } : {});
+    },
+
     async getCurrentUser() {
         if (USE_MOCK_DATA) {
             return { email: 'mock@test.com', role: 'ADMIN' };
@@ -2,12 +2,16 @@ package com.bienestaranimal.app;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 
 @SpringBootApplication
 public class BienestaranimalApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(BienestaranimalApplication.class, args);
+		SpringApplication app = new SpringApplication(BienestaranimalApplication.class);
+		// Guarda los pasos del arranque para consultarlos en /api/arranque/timeline
+		app.setApplicationStartup(new BufferingApplicationStartup(4096));
+		app.run(args);
 	}
 
 }
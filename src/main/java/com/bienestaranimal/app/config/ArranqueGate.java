@@ -0,0 +1,43 @@
+package com.bienestaranimal.app.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Puerta de disponibilidad: hasta que el DataLoader termina de sembrar en
+ * segundo plano, los endpoints que dependen de esos datos responden 503 con
+ * Retry-After en lugar de devolver catálogos vacíos.
+ */
+@Component
+public class ArranqueGate implements HandlerInterceptor {
+
+    private volatile boolean listo = false;
+    private volatile long listoEn;
+
+    public void abrir() {
+        listoEn = System.currentTimeMillis();
+        listo = true;
+    }
+
+    public boolean isListo() {
+        return listo;
+    }
+
+    public long getListoEn() {
+        return listoEn;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (listo) {
+            return true;
+        }
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "5");
+        return false;
+    }
+}
@@ -0,0 +1,83 @@
+package com.bienestaranimal.app.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+@EnableAsync
+@EnableScheduling
+public class AsyncConfig {
+
+    // Los ejecutores de esta clase hacen que Spring Boot no cree applicationTaskExecutor
+    // (solo lo registra si no hay ningún Executor), así que las peticiones asíncronas de
+    // MVC (exportaciones en streaming) necesitan su propio pool acotado: WebConfig lo usa
+    @Bean
+    public ThreadPoolTaskExecutor mvcAsyncExecutor(
+            @Value("${bienestar.mvc-async.hilos:8}") int hilos,
+            @Value("${bienestar.mvc-async.cola:50}") int cola) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(hilos);
+        executor.setMaxPoolSize(hilos);
+        executor.setQueueCapacity(cola);
+        executor.setThreadNamePrefix("mvc-async-");
+        executor.initialize();
+        return executor;
+    }
+
+    // Pool acotado para las alertas: con la cola llena submit lanza TaskRejectedException y la
+    // evaluación sigue marcada en la base de datos para reintentarla, sin bloquear la petición
+    @Bean
+    public ThreadPoolTaskExecutor alertasExecutor(
+            @Value("${bienestar.alertas.hilos:2}") int hilos,
+            @Value("${bienestar.alertas.cola:500}") int cola) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(hilos);
+        executor.setMaxPoolSize(hilos);
+        executor.setQueueCapacity(cola);
+        executor.setThreadNamePrefix("alertas-");
+        executor.initialize();
+        return executor;
+    }
+
+    // Hash de contraseñas (BCrypt) fuera de los hilos de Tomcat; sin política de rechazo
+    // propia, así que con la cola llena submit lanza TaskRejectedException y se responde 429
+    @Bean
+    public ThreadPoolTaskExecutor hashExecutor(
+            @Value("${bienestar.hash.hilos:2}") int hilos,
+            @Value("${bienestar.hash.cola:20}") int cola) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(hilos);
+        executor.setMaxPoolSize(hilos);
+        executor.setQueueCapacity(cola);
+        executor.setThreadNamePrefix("hash-");
+        executor.initialize();
+        return executor;
+    }
+
+    // Variantes reducidas de las imágenes subidas: un hilo basta y no compite con las peticiones
+    @Bean
+    public ThreadPoolTaskExecutor imagenesExecutor(
+            @Value("${bienestar.imagenes.hilos:1}") int hilos,
+            @Value("${bienestar.imagenes.cola:200}") int cola) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(hilos);
+        executor.setMaxPoolSize(hilos);
+        executor.setQueueCapacity(cola);
+        executor.setThreadNamePrefix("imagenes-");
+        executor.setRejectedExecutionHandler((tarea, pool) -> System.out
+                .println("ImagenDerivadaService: cola llena, se servirá la imagen original"));
+        executor.initialize();
+        return executor;
+    }
+
+    // Tareas puntuales de arranque (siembra de datos) fuera del hilo principal
+    @Bean
+    public SimpleAsyncTaskExecutor arranqueExecutor() {
+        return new SimpleAsyncTaskExecutor("arranque-");
+    }
+}
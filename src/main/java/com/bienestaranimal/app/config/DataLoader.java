@@ -2,41 +2,102 @@ package com.bienestaranimal.app.config;
 
 import com.bienestaranimal.app.model.Animal;
 import com.bienestaranimal.app.model.Role;
+import com.bienestaranimal.app.model.SeedChecksum;
 import com.bienestaranimal.app.model.Usuario;
 import com.bienestaranimal.app.repository.AnimalRepository;
 
 import com.bienestaranimal.app.repository.UsuarioRepository;
 import com.bienestaranimal.app.repository.PreguntaRepository;
+import com.bienestaranimal.app.repository.SeedChecksumRepository;
+import com.bienestaranimal.app.service.AnimalSearchIndex;
+import com.bienestaranimal.app.service.PreguntaCatalog;
 import lombok.RequiredArgsConstructor;
-import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 
 @Component
 @RequiredArgsConstructor
-public class DataLoader implements CommandLineRunner {
+public class DataLoader {
+
+        private static final String SEED_GUIAS = "guias-especie";
 
         private final UsuarioRepository usuarioRepository;
         private final AnimalRepository animalRepository;
         private final PreguntaRepository preguntaRepository;
+        private final SeedChecksumRepository seedChecksumRepository;
         private final PasswordEncoder passwordEncoder;
+        private final TransactionTemplate transactionTemplate;
+        private final PreguntaCatalog preguntaCatalog;
+        private final AnimalSearchIndex animalSearchIndex;
+        private final ArranqueGate arranqueGate;
+        private final PuntuacionBackfill puntuacionBackfill;
+        private final RollupBackfill rollupBackfill;
+        private final ApplicationStartup applicationStartup;
 
         @PersistenceContext
         private EntityManager entityManager;
 
         private final Random random = new Random();
 
-        @Override
-        @Transactional
-        public void run(String... args) throws Exception {
+        // La siembra se hace en segundo plano cuando la aplicación ya acepta peticiones;
+        // hasta que termina, ArranqueGate responde 503 en los endpoints que dependen de ella
+        @Async("arranqueExecutor")
+        @EventListener(ApplicationReadyEvent.class)
+        public void onApplicationReady() {
+                StartupStep paso = applicationStartup.start("bienestar.datos-iniciales");
+                long inicio = System.currentTimeMillis();
+                try {
+                        transactionTemplate.executeWithoutResult(status -> sembrar());
+                } catch (RuntimeException e) {
+                        paso.tag("error", String.valueOf(e.getMessage()));
+                        System.out.println("DataLoader: Error al sembrar datos iniciales: " + e.getMessage());
+                }
+                List<Long> sinRollup = List.of();
+                try {
+                        preguntaCatalog.reload();
+                        animalSearchIndex.reconstruir();
+                        sinRollup = rollupBackfill.pendientes();
+                } finally {
+                        paso.end();
+                        arranqueGate.abrir();
+                }
+                System.out.println("DataLoader: Proceso finalizado en " + (System.currentTimeMillis() - inicio)
+                                + " ms.");
+                rellenarHistorico(sinRollup);
+        }
+
+        // Los rellenos del histórico recorren tablas enteras en el primer arranque tras actualizar,
+        // así que van con la puerta ya abierta. Las puntuaciones primero: los agregados se calculan con ellas
+        private void rellenarHistorico(List<Long> sinRollup) {
+                StartupStep paso = applicationStartup.start("bienestar.rellenos");
+                try {
+                        puntuacionBackfill.ejecutar();
+                        rollupBackfill.ejecutar(sinRollup);
+                } catch (RuntimeException e) {
+                        paso.tag("error", String.valueOf(e.getMessage()));
+                        System.out.println("DataLoader: Error al rellenar el histórico: " + e.getMessage());
+                } finally {
+                        paso.end();
+                }
+        }
+
+        private void sembrar() {
                 // 1. Asegurar Usuarios
                 Usuario admin = usuarioRepository.findByEmail("admin@test.com")
                                 .orElseGet(() -> usuarioRepository.save(Usuario.builder()
@@ -69,77 +130,47 @@ public class DataLoader implements CommandLineRunner {
                         System.out.println("DataLoader: Poblando catálogo de especies del Zoo de Córdoba...");
                         seedZooCordobaEspecies(admin, cuidador);
                 } else {
-                        System.out.println("DataLoader: Actualizando guías de manejo para animales existentes...");
                         updateGuidesForExistingAnimals();
                 }
-
-                System.out.println("DataLoader: Proceso finalizado.");
         }
 
+        // Una consulta de especies distintas y un UPDATE por guía; si ni la tabla de guías
+        // ni los animales han cambiado desde la última vez, no se hace nada
         private void updateGuidesForExistingAnimals() {
-                List<Animal> animals = animalRepository.findAll();
-                for (Animal a : animals) {
-                        String guiaUrl = getGuideUrlForSpecies(a.getEspecie());
-                        if (guiaUrl != null && (a.getGuiaManejoUrl() == null || a.getGuiaManejoUrl().isEmpty()
-                                        || a.getGuiaManejoUrl().startsWith("/guides/")
-                                        || a.getGuiaManejoUrl().contains("/api/files/download/guides/"))) {
-                                String oldUrl = a.getGuiaManejoUrl();
-                                a.setGuiaManejoUrl(guiaUrl);
-                                animalRepository.save(a);
-                                System.out.println("DataLoader: ACTUALIZADA guía para [" + a.getNombre() + "] de ["
-                                                + oldUrl + "] a [" + guiaUrl + "]");
+                String tabla = GuiasPorEspecie.checksum();
+                boolean sinCambios = seedChecksumRepository.findById(SEED_GUIAS)
+                                .map(s -> s.getChecksum().equals(huellaGuias(tabla)))
+                                .orElse(false);
+                if (sinCambios) {
+                        System.out.println("DataLoader: Guías de manejo sin cambios.");
+                        return;
+                }
+
+                System.out.println("DataLoader: Actualizando guías de manejo para animales existentes...");
+                Map<String, List<String>> especiesPorGuia = new HashMap<>();
+                for (String especie : animalRepository.findDistinctEspecies()) {
+                        String guia = GuiasPorEspecie.resolver(especie);
+                        if (guia != null) {
+                                especiesPorGuia.computeIfAbsent(guia, k -> new ArrayList<>()).add(especie);
                         }
                 }
-        }
 
-        private String getGuideUrlForSpecies(String esp) {
-                if (esp.equalsIgnoreCase("Rinoceronte indio")) {
-                        return "/api/guias/file/2015_Greater_one_horned_rhino_EAZA_Best_Practice_Guidelines_NV_4195f1d7d7.pdf";
-                } else if (esp.equalsIgnoreCase("Nutria Europea") || esp.equalsIgnoreCase("Nutria asiática")) {
-                        return "/api/guias/file/2016_European_otter_EAZA_Best_Practice_Guidelines_Approved_3af5e51a98.pdf";
-                } else if (esp.equalsIgnoreCase("Cercopiteco de Brazza")) {
-                        return "/api/guias/file/201807_BPG_De_Brazza_monkey_NV_30c832fa3f.pdf";
-                } else if (esp.equalsIgnoreCase("Hipopótamo Pigmeo")) {
-                        return "/api/guias/file/2020_EAZA_Best_Practice_Guidelines_Pygmy_hippo_approved2_fc7f75526d.pdf";
-                } else if (esp.equalsIgnoreCase("Buitre Negro") || esp.equalsIgnoreCase("Buitre Leonado")
-                                || esp.equalsIgnoreCase("Quebrantahuesos")) {
-                        return "/api/guias/file/BPG_cinereous_vulture_2023_final_ddoi_67f352455e.pdf";
-                } else if (esp.equalsIgnoreCase("Turaco Cariblanco")) {
-                        return "/api/guias/file/Best_Practice_Guidelines_Turaco_approved_NV_5ee8b35cee.pdf";
-                } else if (esp.equalsIgnoreCase("Mangabey de Coronilla Blanca")) {
-                        return "/api/guias/file/EAZA_BPG_Mangabey_NV_d9bd24bf84.pdf";
-                } else if (esp.equalsIgnoreCase("Tití Pigmeo") || esp.contains("Tití")) {
-                        return "/api/guias/file/Guia_de_manejo_de_EAZA_para_Calitricidos_traducida_por_ALPZA_2_7f4f340b83.pdf";
-                } else if (esp.equalsIgnoreCase("Drill") || esp.equalsIgnoreCase("Mandrill")) {
-                        return "/api/guias/file/Mandrill_and_Drill_BPG_final_version_2_including_TAG_logo_c6bd06df6a.pdf";
-                } else if (esp.equalsIgnoreCase("Avestruz")) {
-                        return "/api/guias/file/North_ostrich_BPG_c731b4a332.pdf";
-                } else if (esp.equalsIgnoreCase("Jirafa")) {
-                        return "/api/guias/file/aza_giraffe_care_manual.pdf";
-                } else if (esp.equalsIgnoreCase("Capibara")) {
-                        return "/api/guias/file/capybara_care_manual_2021.pdf";
-                } else if (esp.contains("Lémur")) {
-                        return "/api/guias/file/eulemur_care_manual_spanish_alpza.pdf";
-                } else if (esp.equalsIgnoreCase("Lobo Ibérico")) {
-                        return "/api/guias/file/large_canids_care_manual_spanish_alpza.pdf";
-                } else if (esp.contains("León") || esp.contains("Leopardo") || esp.contains("Tigre")
-                                || esp.contains("Serval") || esp.contains("Lince")) {
-                        if (esp.contains("Tigre"))
-                                return "/api/guias/file/tiger_care_manual_spanish_alpza.pdf";
-                        else
-                                return "/api/guias/file/lion_care_manual_spanish_alpza.pdf";
-                } else if (esp.equalsIgnoreCase("Suricata") || esp.contains("Mangosta")) {
-                        return "/api/guias/file/mongoose_meerkat_and_fossa_acm_spanish_alpza.pdf";
-                } else if (esp.equalsIgnoreCase("Visón Europeo") || esp.contains("Hurón") || esp.contains("Nutria")) {
-                        return "/api/guias/file/mustelidcaremanual2010r.pdf";
-                } else if (esp.equalsIgnoreCase("Nutria asiática") || esp.equalsIgnoreCase("Nutria Europea")) {
-                        return "/api/guias/file/otter_care_manual2.pdf";
-                } else if (esp.contains("Búho") || esp.contains("Lechuza") || esp.contains("Mochuelo")) {
-                        return "/api/guias/file/owl_care_manual_2022.pdf";
-                } else if (esp.contains("Tapir")) {
-                        return "/api/guias/file/tapir_acm_spanish_alpza.pdf";
+                LocalDateTime ahora = LocalDateTime.now();
+                int actualizados = 0;
+                for (Map.Entry<String, List<String>> e : especiesPorGuia.entrySet()) {
+                        actualizados += animalRepository.updateGuiaHeredada(e.getKey(), e.getValue(), ahora);
                 }
-                return null;
+                System.out.println("DataLoader: " + actualizados + " animales con guía actualizada.");
+
+                seedChecksumRepository.save(SeedChecksum.builder()
+                                .nombre(SEED_GUIAS)
+                                .checksum(huellaGuias(tabla))
+                                .aplicadoEn(ahora)
+                                .build());
+        }
+
+        private String huellaGuias(String tabla) {
+                return tabla + ":" + animalRepository.findVersion().etag("animales");
         }
 
         private void seedPreguntasABC() {
@@ -453,69 +484,14 @@ public class DataLoader implements CommandLineRunner {
                 };
 
                 int count = Math.min(especies.length, urls.length);
+                List<Animal> animales = new ArrayList<>(count);
                 for (int i = 0; i < count; i++) {
                         String esp = especies[i];
                         String fotoUrl = urls[i];
 
-                        String guiaUrl = null;
-
-                        // Asignación de guías específicas según especie
-                        if (esp.equalsIgnoreCase("Rinoceronte indio")) {
-                                guiaUrl = "/api/guias/file/2015_Greater_one_horned_rhino_EAZA_Best_Practice_Guidelines_NV_4195f1d7d7.pdf";
-                        } else if (esp.equalsIgnoreCase("Nutria Europea") || esp.equalsIgnoreCase("Nutria asiática")) {
-                                guiaUrl = "/api/guias/file/2016_European_otter_EAZA_Best_Practice_Guidelines_Approved_3af5e51a98.pdf";
-                        } else if (esp.equalsIgnoreCase("Cercopiteco de Brazza")) {
-                                guiaUrl = "/api/guias/file/201807_BPG_De_Brazza_monkey_NV_30c832fa3f.pdf";
-                        } else if (esp.equalsIgnoreCase("Hipopótamo Pigmeo")) {
-                                guiaUrl = "/api/guias/file/2020_EAZA_Best_Practice_Guidelines_Pygmy_hippo_approved2_fc7f75526d.pdf";
-                        } else if (esp.equalsIgnoreCase("Buitre Negro") || esp.equalsIgnoreCase("Buitre Leonado")
-                                        || esp.equalsIgnoreCase("Quebrantahuesos")) {
-                                guiaUrl = "/api/guias/file/BPG_cinereous_vulture_2023_final_ddoi_67f352455e.pdf";
-                        } else if (esp.equalsIgnoreCase("Turaco Cariblanco")) {
-                                guiaUrl = "/api/guias/file/Best_Practice_Guidelines_Turaco_approved_NV_5ee8b35cee.pdf";
-                        } else if (esp.equalsIgnoreCase("Mangabey de Coronilla Blanca")) {
-                                guiaUrl = "/api/guias/file/EAZA_BPG_Mangabey_NV_d9bd24bf84.pdf";
-                        } else if (esp.equalsIgnoreCase("Tití Pigmeo") || esp.contains("Tití")) {
-                                guiaUrl = "/api/guias/file/Guia_de_manejo_de_EAZA_para_Calitricidos_traducida_por_ALPZA_2_7f4f340b83.pdf";
-                        } else if (esp.equalsIgnoreCase("Drill") || esp.equalsIgnoreCase("Mandrill")) {
-                                guiaUrl = "/api/guias/file/Mandrill_and_Drill_BPG_final_version_2_including_TAG_logo_c6bd06df6a.pdf";
-                        } else if (esp.equalsIgnoreCase("Avestruz")) {
-                                guiaUrl = "/api/guias/file/North_ostrich_BPG_c731b4a332.pdf";
-                        } else if (esp.equalsIgnoreCase("Jirafa")) {
-                                guiaUrl = "/api/guias/file/aza_giraffe_care_manual.pdf";
-                        } else if (esp.equalsIgnoreCase("Capibara")) {
-                                guiaUrl = "/api/guias/file/capybara_care_manual_2021.pdf";
-                        } else if (esp.contains("Lémur")) {
-                                guiaUrl = "/api/guias/file/eulemur_care_manual_spanish_alpza.pdf";
-                        } else if (esp.equalsIgnoreCase("Lobo Ibérico")) {
-                                guiaUrl = "/api/guias/file/large_canids_care_manual_spanish_alpza.pdf";
-                        } else if (esp.contains("León") || esp.contains("Leopardo") || esp.contains("Tigre")
-                                        || esp.contains("Serval") || esp.contains("Lince")) {
-                                // Asignamos manual de grandes felinos/tigre/leon a felinos grandes
-                                if (esp.contains("Tigre"))
-                                        guiaUrl = "/api/guias/file/tiger_care_manual_spanish_alpza.pdf";
-                                else
-                                        guiaUrl = "/api/guias/file/lion_care_manual_spanish_alpza.pdf";
-                        } else if (esp.equalsIgnoreCase("Suricata") || esp.contains("Mangosta")) {
-                                guiaUrl = "/api/guias/file/mongoose_meerkat_and_fossa_acm_spanish_alpza.pdf";
-                        } else if (esp.equalsIgnoreCase("Visón Europeo") || esp.contains("Hurón")
-                                        || esp.contains("Nutria")) {
-                                guiaUrl = "/api/guias/file/mustelidcaremanual2010r.pdf";
-                        } else if (esp.equalsIgnoreCase("Nutria asiática") || esp.equalsIgnoreCase("Nutria Europea")) {
-                                // Override if not caught above
-                                guiaUrl = "/api/guias/file/otter_care_manual2.pdf";
-                        } else if (esp.contains("Búho") || esp.contains("Lechuza") || esp.contains("Mochuelo")) {
-                                guiaUrl = "/api/guias/file/owl_care_manual_2022.pdf";
-                        } else if (esp.contains("Tapir")) {
-                                guiaUrl = "/api/guias/file/tapir_acm_spanish_alpza.pdf";
-                        }
-
-                        // Fallback generic or keep null if no match?
-                        // User asked to look for specific animals.
-                        // Let's set a default WAZA guide only if no specific guide found, or just null.
-                        // For now, let's keep the specific logic.
+                        String guiaUrl = GuiasPorEspecie.resolver(esp);
 
-                        animalRepository.save(Animal.builder()
+                        animales.add(Animal.builder()
                                         .nombre(esp + " Individual")
                                         .especie(esp)
                                         .fechaNacimiento(LocalDate.now().minusYears(random.nextInt(10) + 1))
@@ -525,6 +501,8 @@ public class DataLoader implements CommandLineRunner {
                                         .usuario(random.nextBoolean() ? admin : cuidador)
                                         .build());
                 }
+                // Un solo saveAll: con ids por secuencia Hibernate agrupa los INSERT en lotes
+                animalRepository.saveAll(animales);
         }
 
         private void seedMentalQuestionsOnly() {
@@ -0,0 +1,16 @@
+package com.bienestaranimal.app.config;
+
+/**
+ * Límites comunes de las transacciones que escriben filas sincronizables
+ * (animales y evaluaciones). La sincronización incremental deriva de aquí el
+ * margen con el que vuelve a leer los cambios recientes.
+ */
+public final class Escrituras {
+
+    // Duración máxima de una transacción de escritura. updatedAt se fija al hacer flush, no
+    // al confirmar, así que una fila puede hacerse visible hasta este tiempo después de su marca
+    public static final int TIMEOUT_S = 30;
+
+    private Escrituras() {
+    }
+}
@@ -0,0 +1,100 @@
+package com.bienestaranimal.app.config;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Tabla especie → guía de manejo. Las especies concretas se resuelven con un
+ * HashMap (sin distinguir mayúsculas); si no hay coincidencia exacta se prueban
+ * los fragmentos en orden, de modo que "Tigre" gana a los demás felinos.
+ */
+public final class GuiasPorEspecie {
+
+    private static final String BASE = "/api/guias/file/";
+
+    private static final Map<String, String> EXACTAS = new HashMap<>();
+    private static final Map<String, String> FRAGMENTOS = new LinkedHashMap<>();
+
+    static {
+        exacta(BASE + "2015_Greater_one_horned_rhino_EAZA_Best_Practice_Guidelines_NV_4195f1d7d7.pdf",
+                "Rinoceronte indio");
+        exacta(BASE + "2016_European_otter_EAZA_Best_Practice_Guidelines_Approved_3af5e51a98.pdf",
+                "Nutria Europea", "Nutria asiática");
+        exacta(BASE + "201807_BPG_De_Brazza_monkey_NV_30c832fa3f.pdf", "Cercopiteco de Brazza");
+        exacta(BASE + "2020_EAZA_Best_Practice_Guidelines_Pygmy_hippo_approved2_fc7f75526d.pdf",
+                "Hipopótamo Pigmeo");
+        exacta(BASE + "BPG_cinereous_vulture_2023_final_ddoi_67f352455e.pdf",
+                "Buitre Negro", "Buitre Leonado", "Quebrantahuesos");
+        exacta(BASE + "Best_Practice_Guidelines_Turaco_approved_NV_5ee8b35cee.pdf", "Turaco Cariblanco");
+        exacta(BASE + "EAZA_BPG_Mangabey_NV_d9bd24bf84.pdf", "Mangabey de Coronilla Blanca");
+        exacta(BASE + "Mandrill_and_Drill_BPG_final_version_2_including_TAG_logo_c6bd06df6a.pdf",
+                "Drill", "Mandrill");
+        exacta(BASE + "North_ostrich_BPG_c731b4a332.pdf", "Avestruz");
+        exacta(BASE + "aza_giraffe_care_manual.pdf", "Jirafa");
+        exacta(BASE + "capybara_care_manual_2021.pdf", "Capibara");
+        exacta(BASE + "large_canids_care_manual_spanish_alpza.pdf", "Lobo Ibérico");
+        exacta(BASE + "mongoose_meerkat_and_fossa_acm_spanish_alpza.pdf", "Suricata");
+        exacta(BASE + "mustelidcaremanual2010r.pdf", "Visón Europeo");
+
+        fragmento(BASE + "Guia_de_manejo_de_EAZA_para_Calitricidos_traducida_por_ALPZA_2_7f4f340b83.pdf", "Tití");
+        fragmento(BASE + "eulemur_care_manual_spanish_alpza.pdf", "Lémur");
+        fragmento(BASE + "tiger_care_manual_spanish_alpza.pdf", "Tigre");
+        fragmento(BASE + "lion_care_manual_spanish_alpza.pdf", "León", "Leopardo", "Serval", "Lince");
+        fragmento(BASE + "mongoose_meerkat_and_fossa_acm_spanish_alpza.pdf", "Mangosta");
+        fragmento(BASE + "mustelidcaremanual2010r.pdf", "Hurón", "Nutria");
+        fragmento(BASE + "owl_care_manual_2022.pdf", "Búho", "Lechuza", "Mochuelo");
+        fragmento(BASE + "tapir_acm_spanish_alpza.pdf", "Tapir");
+    }
+
+    private GuiasPorEspecie() {
+    }
+
+    private static void exacta(String guia, String... especies) {
+        for (String especie : especies) {
+            EXACTAS.put(especie.toLowerCase(Locale.ROOT), guia);
+        }
+    }
+
+    private static void fragmento(String guia, String... fragmentos) {
+        for (String f : fragmentos) {
+            FRAGMENTOS.put(f, guia);
+        }
+    }
+
+    public static String resolver(String especie) {
+        if (especie == null) {
+            return null;
+        }
+        String guia = EXACTAS.get(especie.toLowerCase(Locale.ROOT));
+        if (guia != null) {
+            return guia;
+        }
+        for (Map.Entry<String, String> f : FRAGMENTOS.entrySet()) {
+            if (especie.contains(f.getKey())) {
+                return f.getValue();
+            }
+        }
+        return null;
+    }
+
+    // SHA-256 de la tabla: cambia solo si se edita el mapeo
+    public static String checksum() {
+        StringBuilder sb = new StringBuilder();
+        EXACTAS.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(e -> sb.append("=").append(e.getKey()).append('\t').append(e.getValue()).append('\n'));
+        FRAGMENTOS.forEach((k, v) -> sb.append("~").append(k).append('\t').append(v).append('\n'));
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(sb.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.bienestaranimal.app.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Las tablas de identificadores (MySQL no tiene secuencias, Hibernate las
+ * emula con una tabla *_seq) nacen en 1, pero las tablas ya tenían filas con
+ * ids AUTO_INCREMENT. Antes de que se genere ningún id se adelanta cada
+ * secuencia por encima del máximo existente para que no haya colisiones.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+public class IdSequenceSync {
+
+    private static final Map<String, String> SECUENCIAS = Map.of(
+            "animales_seq", "animales",
+            "evaluaciones_seq", "evaluaciones",
+            "respuestas_preguntas_seq", "respuestas_preguntas",
+            "preguntas_seq", "preguntas");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void sincronizar() {
+        SECUENCIAS.forEach((secuencia, tabla) -> {
+            try {
+                jdbcTemplate.update("UPDATE " + secuencia + " SET next_val = GREATEST(next_val, "
+                        + "(SELECT COALESCE(MAX(id), 0) + 1 FROM " + tabla + "))");
+            } catch (DataAccessException e) {
+                System.out.println("IdSequenceSync: no se pudo ajustar " + secuencia + ": " + e.getMessage());
+            }
+        });
+    }
+}
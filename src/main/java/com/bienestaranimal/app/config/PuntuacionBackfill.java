@@ -0,0 +1,67 @@
+package com.bienestaranimal.app.config;
+
+import com.bienestaranimal.app.model.Evaluacion;
+import com.bienestaranimal.app.repository.EvaluacionRepository;
+import com.bienestaranimal.app.repository.RespuestaPreguntaRepository;
+import com.bienestaranimal.app.service.PuntuacionCalculator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rellena las subpuntuaciones de las evaluaciones guardadas antes de que se
+ * persistieran. Trabaja por lotes en transacciones independientes y usa
+ * puntuacionMental == null como marca de pendiente, así que si se interrumpe
+ * continúa donde lo dejó en el siguiente arranque y, una vez completado, solo
+ * cuesta una consulta vacía. Lo lanza DataLoader con la API ya abierta; el lote
+ * se lee con bloqueo de fila para no pisar una edición concurrente.
+ */
+@Component
+@RequiredArgsConstructor
+public class PuntuacionBackfill {
+
+    private final EvaluacionRepository evaluacionRepository;
+    private final RespuestaPreguntaRepository respuestaPreguntaRepository;
+    private final PuntuacionCalculator puntuacionCalculator;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${bienestar.backfill.puntuaciones.batch-size:500}")
+    private int batchSize;
+
+    public void ejecutar() {
+        int total = 0;
+        int procesadas;
+        do {
+            procesadas = transactionTemplate.execute(status -> procesarLote());
+            total += procesadas;
+        } while (procesadas == batchSize);
+
+        if (total > 0) {
+            System.out.println("PuntuacionBackfill: " + total + " evaluaciones actualizadas.");
+        }
+    }
+
+    private int procesarLote() {
+        List<Evaluacion> lote = evaluacionRepository.findByPuntuacionMentalIsNullOrderByIdAsc(Limit.of(batchSize));
+        if (lote.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, Map<String, Double>> medias = new HashMap<>();
+        List<Long> ids = lote.stream().map(Evaluacion::getId).toList();
+        for (Object[] fila : respuestaPreguntaRepository.findMediasPorCategoria(ids)) {
+            medias.computeIfAbsent((Long) fila[0], k -> new HashMap<>())
+                    .put((String) fila[1], ((Number) fila[2]).doubleValue());
+        }
+
+        // Las entidades están gestionadas: el commit emite los UPDATE
+        lote.forEach(e -> puntuacionCalculator.aplicar(e, medias.getOrDefault(e.getId(), Map.of())));
+        return lote.size();
+    }
+}
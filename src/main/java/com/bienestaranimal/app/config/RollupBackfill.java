@@ -0,0 +1,42 @@
+package com.bienestaranimal.app.config;
+
+import com.bienestaranimal.app.repository.EvaluacionRepository;
+import com.bienestaranimal.app.service.EvaluacionRollupService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Construye los agregados de los animales que tienen evaluaciones pero aún no
+ * tienen intervalos (datos anteriores a los rollups). Va después de
+ * PuntuacionBackfill porque agrega las puntuaciones persistidas; cada animal
+ * se procesa en su propia transacción, así que un arranque interrumpido
+ * continúa con los que faltan. DataLoader toma la lista de pendientes antes de
+ * abrir la API: después, una evaluación nueva crea intervalos y el animal ya no
+ * contaría como pendiente aunque le falte el histórico.
+ */
+@Component
+@RequiredArgsConstructor
+public class RollupBackfill {
+
+    private final EvaluacionRepository evaluacionRepository;
+    private final EvaluacionRollupService rollupService;
+    private final TransactionTemplate transactionTemplate;
+
+    public List<Long> pendientes() {
+        return evaluacionRepository.findAnimalIdsSinRollup();
+    }
+
+    // reconstruir borra los intervalos del animal antes de leer sus evaluaciones, así que el
+    // borrado bloquea los registros en vivo de ese animal hasta el commit y no se pierde ninguno
+    public void ejecutar(List<Long> pendientes) {
+        for (Long animalId : pendientes) {
+            transactionTemplate.executeWithoutResult(status -> rollupService.reconstruir(animalId));
+        }
+        if (!pendientes.isEmpty()) {
+            System.out.println("RollupBackfill: agregados reconstruidos para " + pendientes.size() + " animales.");
+        }
+    }
+}
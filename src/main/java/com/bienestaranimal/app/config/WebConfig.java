@@ -1,7 +1,11 @@
 package com.bienestaranimal.app.config;
 
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.io.Resource;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 import org.springframework.web.servlet.resource.PathResourceResolver;
@@ -11,6 +15,30 @@ import java.io.IOException;
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    private final ArranqueGate arranqueGate;
+    private final ThreadPoolTaskExecutor mvcAsyncExecutor;
+
+    public WebConfig(ArranqueGate arranqueGate,
+            @Qualifier("mvcAsyncExecutor") ThreadPoolTaskExecutor mvcAsyncExecutor) {
+        this.arranqueGate = arranqueGate;
+        this.mvcAsyncExecutor = mvcAsyncExecutor;
+    }
+
+    // StreamingResponseBody y demás respuestas asíncronas: pool acotado en lugar del
+    // SimpleAsyncTaskExecutor sin límite que MVC usa si no encuentra applicationTaskExecutor
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(mvcAsyncExecutor);
+    }
+
+    // Endpoints que dependen de los datos sembrados al arrancar
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(arranqueGate)
+                .addPathPatterns("/api/preguntas/**", "/api/animales/**", "/api/evaluaciones/**",
+                        "/api/dashboard/**", "/api/sync/**");
+    }
+
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
         // 1. Recursos estáticos directos (Imágenes, Guías, etc.)
@@ -0,0 +1,28 @@
+package com.bienestaranimal.app.controller;
+
+import com.bienestaranimal.app.model.Alerta;
+import com.bienestaranimal.app.service.AlertaService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/alertas")
+@RequiredArgsConstructor
+public class AlertaController {
+
+    private final AlertaService alertaService;
+
+    @GetMapping
+    public ResponseEntity<List<Alerta>> getAll(@RequestParam(required = false) Long animalId,
+            @RequestParam(required = false, defaultValue = "false") boolean activas) {
+        return ResponseEntity.ok(alertaService.findAll(animalId, activas));
+    }
+
+    @PutMapping("/{id}/resolver")
+    public ResponseEntity<Alerta> resolver(@PathVariable Long id) {
+        return ResponseEntity.ok(alertaService.resolver(id));
+    }
+}
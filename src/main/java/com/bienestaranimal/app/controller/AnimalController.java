@@ -1,15 +1,20 @@
 package com.bienestaranimal.app.controller;
 
+import com.bienestaranimal.app.dto.PaginaDTO;
 import com.bienestaranimal.app.model.Animal;
 import com.bienestaranimal.app.model.Usuario;
 import com.bienestaranimal.app.service.AnimalService;
+import com.bienestaranimal.app.service.VersionService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/animales")
@@ -17,18 +22,38 @@ import java.util.List;
 public class AnimalController {
 
     private final AnimalService animalService;
+    private final VersionService versionService;
 
+    // Con If-None-Match coincidente se responde 304 antes de cargar los animales
     @GetMapping
-    public ResponseEntity<List<Animal>> getAll(@RequestParam(required = false) String search) {
-        if (search != null && !search.isBlank()) {
-            return ResponseEntity.ok(animalService.search(search));
+    public ResponseEntity<List<Animal>> getAll(@RequestParam(required = false) String search, WebRequest request) {
+        String etag = versionService.animales();
+        if (request.checkNotModified(etag)) {
+            return null;
         }
-        return ResponseEntity.ok(animalService.findAll());
+        List<Animal> animales = search != null && !search.isBlank()
+                ? animalService.search(search)
+                : animalService.findAll();
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(etag).body(animales);
+    }
+
+    // Catálogo ligero paginado: ?page=&size=&sort=nombre,asc&fields=id,nombre,fotoUrl
+    @GetMapping("/catalogo")
+    public ResponseEntity<PaginaDTO<Map<String, Object>>> getCatalogo(
+            @RequestParam(required = false, defaultValue = "0") int page,
+            @RequestParam(required = false, defaultValue = "24") int size,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String fields) {
+        return ResponseEntity.ok(animalService.findCatalogo(page, size, sort, fields));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Animal> getById(@PathVariable Long id) {
-        return ResponseEntity.ok(animalService.findById(id));
+    public ResponseEntity<Animal> getById(@PathVariable Long id, WebRequest request) {
+        String etag = versionService.animal(id);
+        if (etag != null && request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(etag).body(animalService.findById(id));
     }
 
     @PostMapping
@@ -0,0 +1,26 @@
+package com.bienestaranimal.app.controller;
+
+import com.bienestaranimal.app.service.ArranqueService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/arranque")
+@RequiredArgsConstructor
+public class ArranqueController {
+
+    private final ArranqueService arranqueService;
+
+    // ?minMs= filtra los pasos más cortos para quedarse con las fases relevantes
+    @GetMapping("/timeline")
+    public ResponseEntity<Map<String, Object>> getTimeline(
+            @RequestParam(required = false, defaultValue = "0") long minMs) {
+        return ResponseEntity.ok(arranqueService.getTimeline(minMs));
+    }
+}
@@ -2,6 +2,7 @@ package com.bienestaranimal.app.controller;
 
 import com.bienestaranimal.app.model.Usuario;
 import com.bienestaranimal.app.service.UsuarioService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -22,10 +23,25 @@ public class AuthController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<Map<String, String>> login(@RequestBody Map<String, String> request) {
+    public ResponseEntity<Map<String, String>> login(@RequestBody Map<String, String> request,
+            HttpServletRequest httpRequest) {
         String email = request.get("email");
         String password = request.get("password");
-        return ResponseEntity.ok(usuarioService.login(email, password));
+        return ResponseEntity.ok(usuarioService.login(email, password, httpRequest.getRemoteAddr()));
+    }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<Map<String, String>> refresh(@RequestBody Map<String, String> request) {
+        return ResponseEntity.ok(usuarioService.refresh(request.get("refreshToken")));
+    }
+
+    // Revoca el token de acceso de la cabecera y, si se envía, el de refresco
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestHeader(value = "Authorization", required = false) String authHeader,
+            @RequestBody(required = false) Map<String, String> request) {
+        String accessToken = authHeader != null && authHeader.startsWith("Bearer ") ? authHeader.substring(7) : null;
+        usuarioService.logout(accessToken, request != null ? request.get("refreshToken") : null);
+        return ResponseEntity.noContent().build();
     }
 
     @GetMapping("/me")
@@ -0,0 +1,23 @@
+package com.bienestaranimal.app.controller;
+
+import com.bienestaranimal.app.service.CacheEstadisticasService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/cache")
+@RequiredArgsConstructor
+public class CacheController {
+
+    private final CacheEstadisticasService cacheEstadisticasService;
+
+    @GetMapping("/estadisticas")
+    public ResponseEntity<Map<String, Object>> getEstadisticas() {
+        return ResponseEntity.ok(cacheEstadisticasService.getEstadisticas());
+    }
+}
@@ -0,0 +1,24 @@
+package com.bienestaranimal.app.controller;
+
+import com.bienestaranimal.app.dto.DashboardAnimalDTO;
+import com.bienestaranimal.app.service.DashboardService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/dashboard")
+@RequiredArgsConstructor
+public class DashboardController {
+
+    private final DashboardService dashboardService;
+
+    @GetMapping
+    public ResponseEntity<List<DashboardAnimalDTO>> getDashboard() {
+        return ResponseEntity.ok(dashboardService.getDashboard());
+    }
+}
@@ -1,13 +1,28 @@
 package com.bienestaranimal.app.controller;
 
+import com.bienestaranimal.app.dto.CursorPage;
+import com.bienestaranimal.app.dto.EvaluacionResumenDTO;
+import com.bienestaranimal.app.dto.RadarDTO;
+import com.bienestaranimal.app.dto.SeriePuntoDTO;
 import com.bienestaranimal.app.model.Evaluacion;
+import com.bienestaranimal.app.model.Granularidad;
 import com.bienestaranimal.app.service.AnimalService;
+import com.bienestaranimal.app.service.EvaluacionExportService;
+import com.bienestaranimal.app.service.EvaluacionRollupService;
 import com.bienestaranimal.app.service.EvaluacionService;
+import com.bienestaranimal.app.service.VersionService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @RestController
@@ -17,21 +32,9 @@ public class EvaluacionController {
 
     private final EvaluacionService evaluacionService;
     private final AnimalService animalService;
-
-    // DTO for List Views (Lightweight - History/Dashboard)
-    @lombok.Data
-    @lombok.Builder
-    private static class EvaluacionResumenDTO {
-        private Long id;
-        private String fechaHora;
-        private String animalNombre;
-        private Long animalId;
-        private String evaluador;
-        private String cargo;
-        private Integer puntuacionGlobal;
-        private Integer nivelConfianza;
-        private Integer puntuacionMental; // New field for Dashboard
-    }
+    private final EvaluacionRollupService rollupService;
+    private final EvaluacionExportService exportService;
+    private final VersionService versionService;
 
     // DTO for Detailed Views (Graphs/Intelligence)
     @lombok.Data
@@ -63,64 +66,6 @@ public class EvaluacionController {
         private String categoria;
     }
 
-    private EvaluacionResumenDTO mapToDTO(Evaluacion e) {
-        // Calculate Mental State score specifically for Dashboard
-        Integer mentalScore = 0;
-        if (e.getRespuestasDetalladas() != null && !e.getRespuestasDetalladas().isEmpty()) {
-            double sum = 0;
-            int count = 0;
-            // System.out.println("Processing Eval ID: " + e.getId() + " - Answers: " +
-            // e.getRespuestasDetalladas().size());
-            for (com.bienestaranimal.app.model.RespuestaPregunta r : e.getRespuestasDetalladas()) {
-                if (r.getPregunta() != null) {
-                    // System.out.println(" - Pregunta Category: " +
-                    // r.getPregunta().getCategoria());
-                    if ("ESTADO MENTAL".equalsIgnoreCase(r.getPregunta().getCategoria())) {
-                        if (r.getPuntos() != null) {
-                            // Points are already 0-100 (A=100, B=50, C=0)
-                            sum += r.getPuntos();
-                            count++;
-                            // System.out.println(" -> MATCH Mental! Points: " + r.getPuntos() + ", Count: "
-                            // + count);
-                        }
-                    }
-                }
-            }
-            if (count > 0) {
-                mentalScore = (int) Math.round(sum / count);
-                // System.out.println(" => Final Mental Score: " + mentalScore);
-            }
-        } else {
-            // System.out.println("Eval ID: " + e.getId() + " has NULL or EMPTY answers.");
-        }
-
-        // Force logging for at least one evaluation if needed, but let's keep it clean
-        // for now.
-        // Or actually, user says it DOES NOT work, so I NEED logs.
-        if (mentalScore > 0) {
-            System.out.println("DEBUG: Eval " + e.getId() + " Mental Score Calculated: " + mentalScore);
-        } else if (e.getRespuestasDetalladas() != null && !e.getRespuestasDetalladas().isEmpty()) {
-            // Check if we are missing it
-            long mentalCount = e.getRespuestasDetalladas().stream().filter(
-                    r -> r.getPregunta() != null && "ESTADO MENTAL".equalsIgnoreCase(r.getPregunta().getCategoria()))
-                    .count();
-            if (mentalCount == 0)
-                System.out.println("DEBUG: Eval " + e.getId() + " has answers but NO 'ESTADO MENTAL' category found.");
-        }
-
-        return EvaluacionResumenDTO.builder()
-                .id(e.getId())
-                .fechaHora(e.getFechaHora() != null ? e.getFechaHora().toString() : null)
-                .animalNombre(e.getAnimal() != null ? e.getAnimal().getNombre() : "Desconocido")
-                .animalId(e.getAnimal() != null ? e.getAnimal().getId() : null)
-                .evaluador(e.getEvaluador())
-                .cargo(e.getCargo())
-                .puntuacionGlobal(e.getPuntuacionGlobal())
-                .nivelConfianza(e.getNivelConfianza())
-                .puntuacionMental(mentalScore)
-                .build();
-    }
-
     private EvaluacionDetalleDTO mapToDetalleDTO(Evaluacion e) {
         return EvaluacionDetalleDTO.builder()
                 .id(e.getId())
@@ -142,23 +87,79 @@ public class EvaluacionController {
                 .build();
     }
 
+    // Los GET de lectura llevan ETag; con If-None-Match coincidente se responde 304 sin consultar las evaluaciones
     @GetMapping
-    public ResponseEntity<List<EvaluacionResumenDTO>> getAll() {
-        return ResponseEntity.ok(evaluacionService.findAll().stream()
-                .map(this::mapToDTO)
-                .toList());
+    public ResponseEntity<List<EvaluacionResumenDTO>> getAll(WebRequest request) {
+        String etag = versionService.evaluaciones();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(etag)
+                .body(evaluacionService.findAllResumen());
+    }
+
+    @GetMapping("/resumen")
+    public ResponseEntity<CursorPage<EvaluacionResumenDTO>> getResumen(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "50") int size,
+            WebRequest request) {
+        String etag = versionService.evaluaciones();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(etag)
+                .body(evaluacionService.findResumen(cursor, size));
     }
 
     @GetMapping("/animal/{animalId}")
-    public ResponseEntity<List<EvaluacionDetalleDTO>> getByAnimal(@PathVariable Long animalId) {
-        return ResponseEntity.ok(evaluacionService.findByAnimal(animalId).stream()
-                .map(this::mapToDetalleDTO)
-                .toList());
+    public ResponseEntity<List<EvaluacionDetalleDTO>> getByAnimal(@PathVariable Long animalId, WebRequest request) {
+        String etag = versionService.evaluacionesDeAnimal(animalId);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(etag)
+                .body(evaluacionService.findByAnimal(animalId).stream()
+                        .map(this::mapToDetalleDTO)
+                        .toList());
+    }
+
+    // Serie agregada (bucket=day|week|month): O(intervalos) en lugar de O(evaluaciones x respuestas)
+    @GetMapping("/animal/{animalId}/series")
+    public ResponseEntity<List<SeriePuntoDTO>> getSerie(@PathVariable Long animalId,
+            @RequestParam(required = false, defaultValue = "week") String bucket) {
+        return ResponseEntity.ok(rollupService.getSerie(animalId, Granularidad.fromParam(bucket)));
+    }
+
+    @GetMapping("/animal/{animalId}/categorias")
+    public ResponseEntity<RadarDTO> getRadar(@PathVariable Long animalId,
+            @RequestParam(required = false) Long evaluacionId) {
+        return ResponseEntity.ok(evaluacionService.getRadar(animalId, evaluacionId));
+    }
+
+    // Exportación completa en streaming (format=ndjson|csv). Es la única respuesta asíncrona
+    // sin límite de tiempo: el volcado entero puede durar más que el timeout global
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(required = false, defaultValue = "ndjson") String format, WebRequest request) {
+        WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest().setTimeout(-1L);
+        boolean csv = "csv".equalsIgnoreCase(format);
+        StreamingResponseBody body = csv ? exportService::exportarCsv : exportService::exportarNdjson;
+        return ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                        : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"evaluaciones." + (csv ? "csv" : "ndjson") + "\"")
+                .body(body);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Evaluacion> getById(@PathVariable Long id) {
-        return ResponseEntity.ok(evaluacionService.findById(id));
+    public ResponseEntity<Evaluacion> getById(@PathVariable Long id, WebRequest request) {
+        String etag = versionService.evaluacion(id);
+        if (etag != null && request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(etag)
+                .body(evaluacionService.findDetalleById(id));
     }
 
     @PostMapping
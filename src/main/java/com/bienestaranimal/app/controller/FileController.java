@@ -1,26 +1,39 @@
 package com.bienestaranimal.app.controller;
 
+import com.bienestaranimal.app.service.ArchivoDescarga;
 import com.bienestaranimal.app.service.FileStorageService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.util.UriUtils;
 
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.Collections;
 import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @RestController
 @RequestMapping("/api/files")
 @RequiredArgsConstructor
 public class FileController {
 
+    // Solo se atiende un rango; con varios se responde el fichero completo (RFC 9110 lo permite)
+    private static final Pattern RANGO = Pattern.compile("bytes=(\\d*)-(\\d*)");
+    // Por debajo de este tamaño el sendfile de Tomcat no compensa (mismo umbral que su DefaultServlet)
+    private static final long UMBRAL_SENDFILE = 48 * 1024;
+    private static final String SENDFILE_SOPORTADO = "org.apache.tomcat.sendfile.support";
+
     private final FileStorageService fileStorageService;
 
     @PostMapping("/upload")
@@ -30,41 +43,95 @@ public class FileController {
     }
 
     @GetMapping("/download/{*fileName}")
-    public ResponseEntity<Resource> downloadFile(
+    public void downloadFile(
             @PathVariable String fileName,
-            @RequestParam(required = false, defaultValue = "false") boolean download) {
-        try {
-            String cleanFileName = fileName.startsWith("/") ? fileName.substring(1) : fileName;
-            Path filePath = Paths.get("uploads").resolve(cleanFileName).normalize();
-            Resource resource = new UrlResource(filePath.toUri());
-            if (resource.exists()) {
-                String contentType = Files.probeContentType(filePath);
-                if (contentType == null || (!contentType.equals("application/pdf")
-                        && filePath.toString().toLowerCase().endsWith(".pdf"))) {
-                    if (filePath.toString().toLowerCase().endsWith(".pdf")) {
-                        contentType = "application/pdf";
-                    } else if (contentType == null) {
-                        contentType = "application/octet-stream";
-                    }
-                }
+            @RequestParam(required = false, defaultValue = "false") boolean download,
+            @RequestParam(required = false) Integer w,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        String cleanFileName = fileName.startsWith("/") ? fileName.substring(1) : fileName;
+        ArchivoDescarga archivo = fileStorageService.describir(cleanFileName, w);
+        if (archivo == null) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
 
-                ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.ok()
-                        .contentType(MediaType.parseMediaType(contentType));
+        response.setHeader(HttpHeaders.CACHE_CONTROL,
+                archivo.inmutable() ? "public, max-age=31536000, immutable" : "public, max-age=60");
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (new ServletWebRequest(request, response).checkNotModified(archivo.etag())) {
+            return;
+        }
+
+        response.setContentType(archivo.mimeType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                contentDisposition(download ? "attachment" : "inline", archivo.nombre()));
 
-                if (download) {
-                    responseBuilder.header(HttpHeaders.CONTENT_DISPOSITION,
-                            "attachment; filename=\"" + resource.getFilename() + "\"");
-                } else {
-                    responseBuilder.header(HttpHeaders.CONTENT_DISPOSITION,
-                            "inline; filename=\"" + resource.getFilename() + "\"");
+        long tamano = archivo.tamano();
+        long inicio = 0;
+        long fin = tamano - 1;
+        String rango = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (rango != null && (ifRange == null || ifRange.equals(archivo.etag()))) {
+            Matcher m = RANGO.matcher(rango.trim());
+            if (m.matches() && !(m.group(1).isEmpty() && m.group(2).isEmpty())) {
+                try {
+                    if (m.group(1).isEmpty()) {
+                        // bytes=-N: los últimos N bytes
+                        inicio = Math.max(0, tamano - Long.parseLong(m.group(2)));
+                    } else {
+                        inicio = Long.parseLong(m.group(1));
+                        if (!m.group(2).isEmpty()) {
+                            fin = Math.min(fin, Long.parseLong(m.group(2)));
+                        }
+                    }
+                } catch (NumberFormatException e) {
+                    inicio = tamano;
+                }
+                if (inicio >= tamano || inicio > fin) {
+                    response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + tamano);
+                    return;
                 }
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + inicio + "-" + fin + "/" + tamano);
+            }
+        }
 
-                return responseBuilder.body(resource);
-            } else {
-                return ResponseEntity.notFound().build();
+        long longitud = fin - inicio + 1;
+        response.setContentLengthLong(longitud);
+        if ("HEAD".equals(request.getMethod()) || longitud <= 0) {
+            return;
+        }
+        if (longitud >= UMBRAL_SENDFILE && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SOPORTADO))) {
+            // Tomcat envía el fichero con sendfile (FileChannel.transferTo) al terminar la petición
+            request.setAttribute("org.apache.tomcat.sendfile.filename", archivo.ruta().toString());
+            request.setAttribute("org.apache.tomcat.sendfile.start", inicio);
+            request.setAttribute("org.apache.tomcat.sendfile.end", fin + 1);
+            return;
+        }
+        try (FileChannel canal = FileChannel.open(archivo.ruta(), StandardOpenOption.READ)) {
+            WritableByteChannel salida = Channels.newChannel(response.getOutputStream());
+            long posicion = inicio;
+            long restantes = longitud;
+            while (restantes > 0) {
+                long enviados = canal.transferTo(posicion, restantes, salida);
+                if (enviados <= 0) {
+                    break;
+                }
+                posicion += enviados;
+                restantes -= enviados;
             }
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError().build();
         }
     }
+
+    // filename con una versión ASCII para clientes antiguos y filename* (RFC 5987) con el nombre en UTF-8
+    static String contentDisposition(String tipo, String nombre) {
+        StringBuilder ascii = new StringBuilder(nombre.length());
+        for (char c : nombre.toCharArray()) {
+            ascii.append(c >= 0x20 && c < 0x7F && c != '"' && c != '\\' ? c : '_');
+        }
+        return tipo + "; filename=\"" + ascii + "\"; filename*=UTF-8''"
+                + UriUtils.encode(nombre, StandardCharsets.UTF_8);
+    }
 }
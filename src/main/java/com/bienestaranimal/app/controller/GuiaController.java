@@ -1,9 +1,10 @@
 package com.bienestaranimal.app.controller;
 
-import lombok.AllArgsConstructor;
-import lombok.Data;
+import com.bienestaranimal.app.service.GuiaIndex;
+import lombok.RequiredArgsConstructor;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -13,48 +14,28 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
-import org.springframework.web.util.UriUtils;
 
 @RestController
 @RequestMapping("/api/guias")
+@RequiredArgsConstructor
 public class GuiaController {
 
     // Carpeta donde están los PDFs reales
     private final String guidesDir = "Guias animales";
 
-    @GetMapping
-    public ResponseEntity<List<GuiaItem>> listGuias() {
-        try {
-            Path path = Paths.get(guidesDir);
-            if (!Files.exists(path)) {
-                return ResponseEntity.ok(new ArrayList<>());
-            }
+    private final GuiaIndex guiaIndex;
 
-            try (Stream<Path> stream = Files.list(path)) {
-                List<GuiaItem> guias = stream
-                        .filter(file -> !Files.isDirectory(file))
-                        .filter(file -> file.getFileName().toString().toLowerCase().endsWith(".pdf"))
-                        .map(file -> {
-                            String fileName = file.getFileName().toString();
-                            String title = beautifyTitle(fileName);
-                            String encodedName = UriUtils.encodePathSegment(fileName, StandardCharsets.UTF_8);
-                            return new GuiaItem(title, "/api/guias/file/" + encodedName);
-                        })
-                        .collect(Collectors.toList());
-                return ResponseEntity.ok(guias);
-            }
-        } catch (IOException e) {
-            return ResponseEntity.internalServerError().build();
-        }
+    // Listado pre-serializado desde el índice; con If-None-Match coincidente Spring responde 304 sin cuerpo
+    @GetMapping
+    public ResponseEntity<byte[]> listGuias() {
+        GuiaIndex.Listado listado = guiaIndex.getListado();
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache())
+                .eTag(listado.version())
+                .body(listado.json());
     }
 
     @GetMapping("/file/{*fileName}")
@@ -95,18 +76,4 @@ public class GuiaController {
             return ResponseEntity.internalServerError().build();
         }
     }
-
-    private String beautifyTitle(String fileName) {
-        String title = fileName.replace(".pdf", "");
-        title = title.replace("_", " ").replace("-", " ");
-        title = title.replaceAll("\\s[a-f0-9]{10}$", "");
-        return title.trim();
-    }
-
-    @Data
-    @AllArgsConstructor
-    public static class GuiaItem {
-        private String title;
-        private String downloadUrl;
-    }
 }
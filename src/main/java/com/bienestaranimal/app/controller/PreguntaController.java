@@ -1,23 +1,28 @@
 package com.bienestaranimal.app.controller;
 
-import com.bienestaranimal.app.model.PreguntaEvaluacion;
-import com.bienestaranimal.app.repository.PreguntaRepository;
+import com.bienestaranimal.app.service.PreguntaCatalog;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/api/preguntas")
 @RequiredArgsConstructor
 public class PreguntaController {
 
-    private final PreguntaRepository preguntaRepository;
+    private final PreguntaCatalog preguntaCatalog;
 
+    // JSON pre-serializado desde el catálogo; con If-None-Match coincidente Spring responde 304 sin cuerpo
     @GetMapping
-    public List<PreguntaEvaluacion> getPreguntas() {
-        return preguntaRepository.findAll();
+    public ResponseEntity<byte[]> getPreguntas() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache())
+                .eTag(preguntaCatalog.getVersion())
+                .body(preguntaCatalog.getJson());
     }
 }
@@ -0,0 +1,30 @@
+package com.bienestaranimal.app.controller;
+
+import com.bienestaranimal.app.security.BoundedPasswordEncoder;
+import com.bienestaranimal.app.security.LoginRateLimiter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/seguridad")
+@RequiredArgsConstructor
+public class SeguridadController {
+
+    private final BoundedPasswordEncoder passwordEncoder;
+    private final LoginRateLimiter loginRateLimiter;
+
+    // Latencia del hash, profundidad de la cola y rechazos (429) del login
+    @GetMapping("/metricas")
+    public ResponseEntity<Map<String, Object>> getMetricas() {
+        Map<String, Object> metricas = new LinkedHashMap<>();
+        metricas.put("hash", passwordEncoder.getMetricas());
+        metricas.put("loginBloqueados", loginRateLimiter.getBloqueados());
+        return ResponseEntity.ok(metricas);
+    }
+}
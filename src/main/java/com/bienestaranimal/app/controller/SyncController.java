@@ -0,0 +1,31 @@
+package com.bienestaranimal.app.controller;
+
+import com.bienestaranimal.app.dto.SyncResponseDTO;
+import com.bienestaranimal.app.dto.SyncSubidaResultadoDTO;
+import com.bienestaranimal.app.model.Evaluacion;
+import com.bienestaranimal.app.service.SyncService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/sync")
+@RequiredArgsConstructor
+public class SyncController {
+
+    private final SyncService syncService;
+
+    @GetMapping
+    public ResponseEntity<SyncResponseDTO> getCambios(@RequestParam(required = false) String since) {
+        return ResponseEntity.ok(syncService.getCambios(since));
+    }
+
+    @PostMapping("/evaluaciones")
+    public ResponseEntity<List<SyncSubidaResultadoDTO>> subirEvaluaciones(
+            @RequestBody List<@Valid Evaluacion> evaluaciones) {
+        return ResponseEntity.ok(syncService.subirEvaluaciones(evaluaciones));
+    }
+}
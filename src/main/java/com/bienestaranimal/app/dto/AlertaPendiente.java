@@ -0,0 +1,8 @@
+package com.bienestaranimal.app.dto;
+
+// Evaluación marcada cuya pasada de alertas todavía no se ha ejecutado
+public interface AlertaPendiente {
+    Long getId();
+
+    Long getAnimalId();
+}
@@ -0,0 +1,16 @@
+package com.bienestaranimal.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Ficha mínima para el catálogo: sin notas ni usuario
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnimalResumenDTO {
+    private Long id;
+    private String nombre;
+    private String especie;
+    private String fotoUrl;
+}
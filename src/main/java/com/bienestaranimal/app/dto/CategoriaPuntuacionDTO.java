@@ -0,0 +1,21 @@
+package com.bienestaranimal.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Media (0-100) de las respuestas de una categoría en una evaluación, para el radar
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoriaPuntuacionDTO {
+    private String categoria;
+    private Integer porcentaje;
+    private Long respuestas;
+
+    public CategoriaPuntuacionDTO(String categoria, Double media, Long respuestas) {
+        this.categoria = categoria;
+        this.porcentaje = media != null ? (int) Math.round(media) : 0;
+        this.respuestas = respuestas;
+    }
+}
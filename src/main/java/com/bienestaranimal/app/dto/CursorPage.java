@@ -0,0 +1,15 @@
+package com.bienestaranimal.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+// Página de resultados paginada por cursor (keyset).
+// nextCursor es null cuando no quedan más elementos.
+@Data
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> items;
+    private String nextCursor;
+}
@@ -0,0 +1,19 @@
+package com.bienestaranimal.app.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+// Estado actual de un animal para el dashboard
+@Data
+@Builder
+public class DashboardAnimalDTO {
+    private Long animalId;
+    private String nombre;
+    private String especie;
+    private String fotoUrl;
+    private String ultimaEvaluacion;
+    private Integer puntuacionGlobal;
+    private Integer puntuacionMental;
+    private Integer tendencia; // diferencia con la evaluación anterior
+    private Long diasDesdeUltima;
+}
@@ -0,0 +1,22 @@
+package com.bienestaranimal.app.dto;
+
+import java.time.LocalDateTime;
+
+// Proyección de la consulta nativa del dashboard (una fila por animal)
+public interface DashboardFila {
+    Long getAnimalId();
+
+    String getNombre();
+
+    String getEspecie();
+
+    String getFotoUrl();
+
+    LocalDateTime getFechaHora();
+
+    Integer getPuntuacionGlobal();
+
+    Integer getPuntuacionMental();
+
+    Integer getGlobalAnterior();
+}
@@ -0,0 +1,27 @@
+package com.bienestaranimal.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// Fila plana (evaluación + una respuesta) leída en streaming para la exportación
+@Data
+@AllArgsConstructor
+public class EvaluacionExportFila {
+    private Long evaluacionId;
+    private LocalDateTime fechaHora;
+    private Long animalId;
+    private String animalNombre;
+    private String evaluador;
+    private String cargo;
+    private String recinto;
+    private Integer puntuacionGlobal;
+    private Integer puntuacionMental;
+    private Integer nivelConfianza;
+    private Long preguntaId;
+    private String categoria;
+    private String seleccion;
+    private Integer puntos;
+    private String comentario;
+}
@@ -0,0 +1,22 @@
+package com.bienestaranimal.app.dto;
+
+import java.time.LocalDateTime;
+
+// Proyección con solo las puntuaciones persistidas de una evaluación (sin respuestas)
+public interface EvaluacionPuntuaciones {
+    Long getId();
+
+    LocalDateTime getFechaHora();
+
+    Integer getPuntuacionGlobal();
+
+    Integer getPuntuacionMental();
+
+    Integer getPuntuacionNutricion();
+
+    Integer getPuntuacionAlojamiento();
+
+    Integer getPuntuacionSalud();
+
+    Integer getPuntuacionComportamiento();
+}
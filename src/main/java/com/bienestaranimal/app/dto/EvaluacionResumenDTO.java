@@ -0,0 +1,49 @@
+package com.bienestaranimal.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// DTO for List Views (Lightweight - History/Dashboard)
+// Se construye directamente desde JPQL (constructor expression), sin cargar entidades.
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EvaluacionResumenDTO {
+    private Long id;
+    private String fechaHora;
+    private String animalNombre;
+    private Long animalId;
+    private String evaluador;
+    private String cargo;
+    private Integer puntuacionGlobal;
+    private Integer nivelConfianza;
+    private Integer puntuacionMental; // New field for Dashboard
+    private Integer puntuacionNutricion;
+    private Integer puntuacionAlojamiento;
+    private Integer puntuacionSalud;
+    private Integer puntuacionComportamiento;
+
+    public EvaluacionResumenDTO(Long id, LocalDateTime fechaHora, String animalNombre, Long animalId,
+            String evaluador, String cargo, Integer puntuacionGlobal, Integer nivelConfianza,
+            Integer puntuacionMental, Integer puntuacionNutricion, Integer puntuacionAlojamiento,
+            Integer puntuacionSalud, Integer puntuacionComportamiento) {
+        this.id = id;
+        this.fechaHora = fechaHora != null ? fechaHora.toString() : null;
+        this.animalNombre = animalNombre != null ? animalNombre : "Desconocido";
+        this.animalId = animalId;
+        this.evaluador = evaluador;
+        this.cargo = cargo;
+        this.puntuacionGlobal = puntuacionGlobal;
+        this.nivelConfianza = nivelConfianza;
+        this.puntuacionMental = puntuacionMental != null ? puntuacionMental : 0;
+        this.puntuacionNutricion = puntuacionNutricion;
+        this.puntuacionAlojamiento = puntuacionAlojamiento;
+        this.puntuacionSalud = puntuacionSalud;
+        this.puntuacionComportamiento = puntuacionComportamiento;
+    }
+}
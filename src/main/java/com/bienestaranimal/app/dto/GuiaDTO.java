@@ -0,0 +1,17 @@
+package com.bienestaranimal.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Entrada del listado de guías; title y downloadUrl mantienen los nombres que ya usa el frontend
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GuiaDTO {
+    private String title;
+    private String downloadUrl;
+    private long size;
+    private Integer pages; // null si no se pudo leer del PDF
+    private String lastModified;
+}
@@ -0,0 +1,16 @@
+package com.bienestaranimal.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+// Página numerada sin total (evita la consulta COUNT): hasNext indica si hay más
+@Data
+@AllArgsConstructor
+public class PaginaDTO<T> {
+    private List<T> items;
+    private int page;
+    private int size;
+    private boolean hasNext;
+}
@@ -0,0 +1,18 @@
+package com.bienestaranimal.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.Map;
+
+// Paso del arranque de Spring (BufferingApplicationStartup) con su duración
+@Data
+@AllArgsConstructor
+public class PasoArranqueDTO {
+    private long id;
+    private Long parentId;
+    private String nombre;
+    private long inicioMs;
+    private long duracionMs;
+    private Map<String, String> tags;
+}
@@ -0,0 +1,14 @@
+package com.bienestaranimal.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+// Desglose por categoría de una evaluación concreta (la más reciente si no se indica)
+@Data
+@AllArgsConstructor
+public class RadarDTO {
+    private Long evaluacionId;
+    private List<CategoriaPuntuacionDTO> categorias;
+}
@@ -0,0 +1,20 @@
+package com.bienestaranimal.app.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+// Punto de la serie temporal de bienestar de un animal (un intervalo agregado)
+@Data
+@Builder
+public class SeriePuntoDTO {
+    private String inicio;
+    private int cantidad;
+    private Double mediaGlobal;
+    private Integer minGlobal;
+    private Integer maxGlobal;
+    private Double mediaMental;
+    private Double mediaNutricion;
+    private Double mediaAlojamiento;
+    private Double mediaSalud;
+    private Double mediaComportamiento;
+}
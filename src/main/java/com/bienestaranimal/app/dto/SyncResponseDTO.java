@@ -0,0 +1,22 @@
+package com.bienestaranimal.app.dto;
+
+import com.bienestaranimal.app.model.Animal;
+import com.bienestaranimal.app.model.PreguntaEvaluacion;
+import com.bienestaranimal.app.model.TipoEntidad;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+// Cambios desde el último token: filas nuevas/modificadas y ids borrados por tipo
+@Data
+@AllArgsConstructor
+public class SyncResponseDTO {
+    private String token;
+    private boolean completo;
+    private List<Animal> animales;
+    private List<EvaluacionResumenDTO> evaluaciones;
+    private List<PreguntaEvaluacion> preguntas;
+    private Map<TipoEntidad, List<Long>> eliminados;
+}
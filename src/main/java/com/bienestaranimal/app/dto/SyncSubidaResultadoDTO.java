@@ -0,0 +1,13 @@
+package com.bienestaranimal.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// Resultado de una evaluación subida desde la cola offline
+@Data
+@AllArgsConstructor
+public class SyncSubidaResultadoDTO {
+    private String clientId;
+    private Long id;
+    private boolean duplicada;
+}
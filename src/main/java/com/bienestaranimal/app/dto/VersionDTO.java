@@ -0,0 +1,36 @@
+package com.bienestaranimal.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+// Huella de un recurso o colección: nº de filas y última modificación (propia y de la entidad relacionada).
+// El recuento cubre los borrados, que no dejan updatedAt.
+@Data
+@AllArgsConstructor
+public class VersionDTO {
+    private Long total;
+    private LocalDateTime ultima;
+    private LocalDateTime relacionada;
+
+    public VersionDTO(Long total, LocalDateTime ultima) {
+        this(total, ultima, null);
+    }
+
+    public boolean existe() {
+        return total != null && total > 0;
+    }
+
+    public String etag(String prefijo) {
+        return prefijo + "-" + total + "-" + micros(ultima) + "-" + micros(relacionada);
+    }
+
+    private static long micros(LocalDateTime t) {
+        if (t == null) {
+            return 0;
+        }
+        return t.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + t.getNano() / 1_000;
+    }
+}
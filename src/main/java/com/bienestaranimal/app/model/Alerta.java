@@ -0,0 +1,42 @@
+package com.bienestaranimal.app.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "alertas", indexes = {
+        @Index(name = "idx_alertas_animal", columnList = "animalId"),
+        @Index(name = "idx_alertas_evaluacion", columnList = "evaluacionId")
+})
+public class Alerta {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long animalId;
+
+    @Column(nullable = false)
+    private Long evaluacionId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private TipoAlerta tipo;
+
+    @Column(length = 500)
+    private String mensaje;
+
+    private LocalDateTime fechaHora;
+
+    private boolean resuelta;
+}
@@ -9,8 +9,12 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Data
@@ -18,11 +22,15 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "animales")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "animales")
+@Table(name = "animales", indexes = {
+        @Index(name = "idx_animales_updated_at", columnList = "updatedAt")
+})
 public class Animal {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "animales_seq")
+    @SequenceGenerator(name = "animales_seq", sequenceName = "animales_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "El nombre es obligatorio")
@@ -40,6 +48,10 @@ public class Animal {
     private String fotoUrl;
     private String guiaManejoUrl;
 
+    // Última modificación, para la sincronización incremental de la PWA
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "usuario_id")
     @JsonIgnoreProperties({ "hibernateLazyInitializer", "handler", "password" })
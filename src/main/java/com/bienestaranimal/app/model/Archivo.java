@@ -0,0 +1,39 @@
+package com.bienestaranimal.app.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Fichero subido, identificado por el SHA-256 de su contenido. La URL pública
+ * es /api/files/download/{hash}{extension}; subir el mismo contenido otra vez
+ * devuelve la misma URL sin escribir nada en disco.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "archivos")
+public class Archivo {
+
+    @Id
+    @Column(length = 64)
+    private String hash;
+
+    @Column(length = 16)
+    private String extension;
+
+    @Column(length = 100)
+    private String mimeType;
+
+    private Long tamano;
+
+    private String nombreOriginal;
+
+    private LocalDateTime creadoEn;
+}
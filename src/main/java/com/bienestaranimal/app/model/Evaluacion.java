@@ -1,5 +1,6 @@
 package com.bienestaranimal.app.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
@@ -7,6 +8,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -16,11 +18,16 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "evaluaciones")
+@Table(name = "evaluaciones", indexes = {
+        @Index(name = "idx_evaluaciones_fecha_id", columnList = "fechaHora, id"),
+        @Index(name = "idx_evaluaciones_updated_at", columnList = "updatedAt"),
+        @Index(name = "idx_evaluaciones_alertas_pendientes", columnList = "alertasPendientes")
+})
 public class Evaluacion {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "evaluaciones_seq")
+    @SequenceGenerator(name = "evaluaciones_seq", sequenceName = "evaluaciones_seq", allocationSize = 50)
     private Long id;
 
     private LocalDateTime fechaHora;
@@ -33,6 +40,13 @@ public class Evaluacion {
 
     private Integer puntuacionGlobal;
 
+    // Subpuntuaciones por categoría (0-100), calculadas al guardar
+    private Integer puntuacionMental;
+    private Integer puntuacionNutricion;
+    private Integer puntuacionAlojamiento;
+    private Integer puntuacionSalud;
+    private Integer puntuacionComportamiento;
+
     @OneToMany(mappedBy = "evaluacion", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<RespuestaPregunta> respuestasDetalladas;
 
@@ -48,6 +62,21 @@ public class Evaluacion {
 
     private String fotosUrl; // URLs separadas por coma
 
+    // Clave de idempotencia generada por el cliente offline
+    @Column(unique = true, length = 64)
+    private String clientId;
+
+    // Pasada de alertas pendiente: se marca al guardar y se limpia al evaluarla. Lo que no
+    // cupo en el pool o se perdió al reiniciar se recupera a partir de esta marca
+    @JsonIgnore
+    @Column(nullable = false, columnDefinition = "boolean default false")
+    @Builder.Default
+    private Boolean alertasPendientes = false;
+
+    // Última modificación, para la sincronización incremental de la PWA
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "animal_id")
     private Animal animal;
@@ -0,0 +1,57 @@
+package com.bienestaranimal.app.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Agregado de las evaluaciones de un animal en un intervalo (día, semana o
+ * mes). Guarda sumas y cuentas en lugar de medias para poder actualizarse de
+ * forma incremental al guardar una evaluación.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "evaluaciones_rollup", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_rollup_animal_bucket", columnNames = { "animal_id", "granularidad", "inicio" })
+})
+public class EvaluacionRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "animal_id", nullable = false)
+    private Long animalId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private Granularidad granularidad;
+
+    @Column(nullable = false)
+    private LocalDate inicio;
+
+    private int cantidad;
+
+    private int cuentaGlobal;
+    private long sumaGlobal;
+    private Integer minGlobal;
+    private Integer maxGlobal;
+
+    private int cuentaMental;
+    private long sumaMental;
+    private int cuentaNutricion;
+    private long sumaNutricion;
+    private int cuentaAlojamiento;
+    private long sumaAlojamiento;
+    private int cuentaSalud;
+    private long sumaSalud;
+    private int cuentaComportamiento;
+    private long sumaComportamiento;
+}
@@ -0,0 +1,42 @@
+package com.bienestaranimal.app.model;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.DayOfWeek;
+import java.time.temporal.TemporalAdjusters;
+
+public enum Granularidad {
+    DIA,
+    SEMANA,
+    MES;
+
+    /** Primer día del intervalo que contiene la fecha (semanas ISO, de lunes a domingo). */
+    public LocalDate inicio(LocalDate fecha) {
+        return switch (this) {
+            case DIA -> fecha;
+            case SEMANA -> fecha.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MES -> fecha.withDayOfMonth(1);
+        };
+    }
+
+    /** Primer día del intervalo siguiente. */
+    public LocalDate fin(LocalDate inicio) {
+        return switch (this) {
+            case DIA -> inicio.plusDays(1);
+            case SEMANA -> inicio.plusWeeks(1);
+            case MES -> inicio.plusMonths(1);
+        };
+    }
+
+    // Viene de un parámetro de la petición: un valor desconocido es un error del cliente (400)
+    public static Granularidad fromParam(String valor) {
+        return switch (valor.trim().toLowerCase()) {
+            case "day", "dia", "día" -> DIA;
+            case "week", "semana" -> SEMANA;
+            case "month", "mes" -> MES;
+            default -> throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Granularidad no válida: " + valor);
+        };
+    }
+}
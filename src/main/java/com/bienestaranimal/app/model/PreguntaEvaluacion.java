@@ -5,17 +5,24 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
 
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "preguntas")
 @Table(name = "preguntas")
 public class PreguntaEvaluacion {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "preguntas_seq")
+    @SequenceGenerator(name = "preguntas_seq", sequenceName = "preguntas_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 1000)
@@ -35,4 +42,8 @@ public class PreguntaEvaluacion {
     private Integer puntosC;
     private Integer puntosD;
     private Integer puntosE;
+
+    // Última modificación, para la sincronización incremental de la PWA
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
 }
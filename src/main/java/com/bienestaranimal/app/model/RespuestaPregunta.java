@@ -16,7 +16,8 @@ import lombok.NoArgsConstructor;
 public class RespuestaPregunta {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "respuestas_preguntas_seq")
+    @SequenceGenerator(name = "respuestas_preguntas_seq", sequenceName = "respuestas_preguntas_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
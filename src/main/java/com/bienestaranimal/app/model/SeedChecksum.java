@@ -0,0 +1,31 @@
+package com.bienestaranimal.app.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Huella de cada bloque de datos semilla ya aplicado; si no ha cambiado,
+ * el DataLoader se salta ese paso en el arranque.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "seed_checksums")
+public class SeedChecksum {
+
+    @Id
+    @Column(length = 50)
+    private String nombre;
+
+    @Column(nullable = false, length = 200)
+    private String checksum;
+
+    private LocalDateTime aplicadoEn;
+}
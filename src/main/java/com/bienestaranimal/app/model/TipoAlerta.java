@@ -0,0 +1,8 @@
+package com.bienestaranimal.app.model;
+
+public enum TipoAlerta {
+    MENTAL_BAJO,
+    CAIDA_MENTAL,
+    GLOBAL_BAJO,
+    SALUD_CRITICA
+}
@@ -0,0 +1,7 @@
+package com.bienestaranimal.app.model;
+
+public enum TipoEntidad {
+    ANIMAL,
+    EVALUACION,
+    PREGUNTA
+}
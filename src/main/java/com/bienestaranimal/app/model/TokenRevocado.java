@@ -0,0 +1,32 @@
+package com.bienestaranimal.app.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Token revocado (logout o refresh ya usado) hasta que caduca por sí solo.
+ * La tabla solo sirve para reconstruir en el arranque el conjunto en memoria
+ * que consulta el filtro JWT.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "tokens_revocados", indexes = {
+        @Index(name = "idx_tokens_revocados_expira", columnList = "expiraEn")
+})
+public class TokenRevocado {
+
+    @Id
+    @Column(length = 36)
+    private String jti;
+
+    @Column(nullable = false)
+    private LocalDateTime expiraEn;
+}
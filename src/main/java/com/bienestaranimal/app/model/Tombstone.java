@@ -0,0 +1,38 @@
+package com.bienestaranimal.app.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Registro de un borrado, para que la sincronización incremental pueda
+ * comunicar a los clientes offline qué filas deben eliminar.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "sync_tombstones", indexes = {
+        @Index(name = "idx_tombstones_deleted_at", columnList = "deletedAt")
+})
+public class Tombstone {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private TipoEntidad tipo;
+
+    @Column(nullable = false)
+    private Long entidadId;
+
+    @Column(nullable = false)
+    private LocalDateTime deletedAt;
+}
@@ -0,0 +1,25 @@
+package com.bienestaranimal.app.repository;
+
+import com.bienestaranimal.app.model.Alerta;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface AlertaRepository extends JpaRepository<Alerta, Long> {
+    List<Alerta> findAllByOrderByFechaHoraDesc();
+
+    List<Alerta> findByResueltaFalseOrderByFechaHoraDesc();
+
+    List<Alerta> findByAnimalIdOrderByFechaHoraDesc(Long animalId);
+
+    @Modifying
+    @Query("delete from Alerta a where a.evaluacionId = :evaluacionId")
+    void deleteByEvaluacionId(@Param("evaluacionId") Long evaluacionId);
+
+    @Modifying
+    @Query("delete from Alerta a where a.animalId = :animalId")
+    void deleteByAnimalId(@Param("animalId") Long animalId);
+}
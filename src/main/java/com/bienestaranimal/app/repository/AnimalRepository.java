@@ -1,9 +1,63 @@
 package com.bienestaranimal.app.repository;
 
+import com.bienestaranimal.app.dto.AnimalResumenDTO;
+import com.bienestaranimal.app.dto.DashboardFila;
+import com.bienestaranimal.app.dto.VersionDTO;
 import com.bienestaranimal.app.model.Animal;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface AnimalRepository extends JpaRepository<Animal, Long> {
-    List<Animal> findByNombreContainingIgnoreCaseOrEspecieContainingIgnoreCase(String nombre, String especie);
+    List<Animal> findByUpdatedAtAfter(LocalDateTime since);
+
+    @Query("select distinct a.especie from Animal a")
+    List<String> findDistinctEspecies();
+
+    // Asigna la guía a las especies indicadas si no tienen o conservan una ruta antigua.
+    // Un UPDATE masivo no pasa por @UpdateTimestamp, así que updatedAt se fija a mano
+    @Modifying
+    @Query("update Animal a set a.guiaManejoUrl = :guia, a.updatedAt = :ahora where a.especie in :especies "
+            + "and (a.guiaManejoUrl is null or a.guiaManejoUrl = '' or a.guiaManejoUrl like '/guides/%' "
+            + "or a.guiaManejoUrl like '%/api/files/download/guides/%')")
+    int updateGuiaHeredada(@Param("guia") String guia, @Param("especies") Collection<String> especies,
+            @Param("ahora") LocalDateTime ahora);
+
+    // Sin cascada: el historial se borra antes con sentencias por conjuntos
+    @Modifying(clearAutomatically = true)
+    @Query("delete from Animal a where a.id = :id")
+    int bulkDeleteById(@Param("id") Long id);
+
+    // Versiones para ETag: una consulta agregada sin cargar entidades
+    @Query("select new com.bienestaranimal.app.dto.VersionDTO(count(a), max(a.updatedAt)) from Animal a")
+    VersionDTO findVersion();
+
+    @Query("select new com.bienestaranimal.app.dto.VersionDTO(count(a), max(a.updatedAt)) from Animal a where a.id = :id")
+    VersionDTO findVersionById(@Param("id") Long id);
+
+    // Catálogo: solo las columnas de la ficha y sin COUNT (Slice)
+    Slice<AnimalResumenDTO> findAllProjectedBy(Pageable pageable);
+
+    // Última evaluación de cada animal y la puntuación de la anterior, en una sola pasada con funciones de ventana
+    String DASHBOARD_SQL = "SELECT a.id AS animalId, a.nombre AS nombre, a.especie AS especie, "
+            + "a.foto_url AS fotoUrl, x.fecha_hora AS fechaHora, x.puntuacion_global AS puntuacionGlobal, "
+            + "x.puntuacion_mental AS puntuacionMental, x.global_anterior AS globalAnterior "
+            + "FROM animales a LEFT JOIN ("
+            + "SELECT e.animal_id, e.fecha_hora, e.puntuacion_global, e.puntuacion_mental, "
+            + "LAG(e.puntuacion_global) OVER (PARTITION BY e.animal_id ORDER BY e.fecha_hora, e.id) AS global_anterior, "
+            + "ROW_NUMBER() OVER (PARTITION BY e.animal_id ORDER BY e.fecha_hora DESC, e.id DESC) AS rn "
+            + "FROM evaluaciones e) x ON x.animal_id = a.id AND x.rn = 1 ";
+
+    @Query(value = DASHBOARD_SQL, nativeQuery = true)
+    List<DashboardFila> findDashboard();
+
+    @Query(value = DASHBOARD_SQL + "WHERE a.id IN (:ids)", nativeQuery = true)
+    List<DashboardFila> findDashboardByIds(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,7 @@
+package com.bienestaranimal.app.repository;
+
+import com.bienestaranimal.app.model.Archivo;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ArchivoRepository extends JpaRepository<Archivo, String> {
+}
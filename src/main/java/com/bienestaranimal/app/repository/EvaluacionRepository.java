@@ -1,9 +1,125 @@
 package com.bienestaranimal.app.repository;
 
+import com.bienestaranimal.app.dto.AlertaPendiente;
+import com.bienestaranimal.app.dto.EvaluacionExportFila;
+import com.bienestaranimal.app.dto.EvaluacionPuntuaciones;
+import com.bienestaranimal.app.dto.EvaluacionResumenDTO;
+import com.bienestaranimal.app.dto.VersionDTO;
 import com.bienestaranimal.app.model.Evaluacion;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface EvaluacionRepository extends JpaRepository<Evaluacion, Long> {
-    List<Evaluacion> findByAnimalIdOrderByFechaHoraDesc(Long animalId);
+    // Historial y detalle con animal, respuestas y preguntas en una sola sentencia (evita N+1)
+    @Query("select e from Evaluacion e left join fetch e.animal "
+            + "left join fetch e.respuestasDetalladas r left join fetch r.pregunta "
+            + "where e.animal.id = :animalId order by e.fechaHora desc")
+    List<Evaluacion> findHistorialByAnimalId(@Param("animalId") Long animalId);
+
+    @Query("select e from Evaluacion e left join fetch e.animal "
+            + "left join fetch e.respuestasDetalladas r left join fetch r.pregunta "
+            + "where e.id = :id")
+    Optional<Evaluacion> findDetalleById(@Param("id") Long id);
+
+    @Query(RESUMEN_SELECT + "where e.updatedAt > :since order by e.fechaHora desc, e.id desc")
+    List<EvaluacionResumenDTO> findResumenUpdatedAfter(@Param("since") LocalDateTime since);
+
+    // Versiones para ETag; el animal cuenta porque su nombre viaja en las respuestas
+    @Query("select new com.bienestaranimal.app.dto.VersionDTO(count(e), max(e.updatedAt), max(a.updatedAt)) "
+            + "from Evaluacion e left join e.animal a")
+    VersionDTO findVersion();
+
+    @Query("select new com.bienestaranimal.app.dto.VersionDTO(count(e), max(e.updatedAt), max(a.updatedAt)) "
+            + "from Evaluacion e join e.animal a where a.id = :animalId")
+    VersionDTO findVersionByAnimalId(@Param("animalId") Long animalId);
+
+    @Query("select new com.bienestaranimal.app.dto.VersionDTO(count(e), max(e.updatedAt), max(a.updatedAt)) "
+            + "from Evaluacion e left join e.animal a where e.id = :id")
+    VersionDTO findVersionById(@Param("id") Long id);
+
+    @Modifying
+    @Query("delete from Evaluacion e where e.animal.id = :animalId")
+    int deleteByAnimalId(@Param("animalId") Long animalId);
+
+    @Query("select e.id from Evaluacion e where e.clientId = :clientId")
+    Optional<Long> findIdByClientId(@Param("clientId") String clientId);
+
+    @Query("select e.id from Evaluacion e where e.animal.id = :animalId order by e.fechaHora desc, e.id desc")
+    List<Long> findUltimaIdByAnimalId(@Param("animalId") Long animalId, Limit limit);
+
+    // Puntuaciones persistidas, para los agregados por intervalo
+    List<EvaluacionPuntuaciones> findByAnimalIdAndFechaHoraGreaterThanEqualAndFechaHoraLessThan(Long animalId,
+            LocalDateTime desde, LocalDateTime hasta);
+
+    List<EvaluacionPuntuaciones> findPuntuacionesByAnimalId(Long animalId);
+
+    List<EvaluacionPuntuaciones> findPuntuacionesByAnimalIdOrderByFechaHoraDescIdDesc(Long animalId, Limit limit);
+
+    Optional<EvaluacionPuntuaciones> findPuntuacionesById(Long id);
+
+    // Evaluaciones cuya pasada de alertas no llegó a ejecutarse (pool lleno o reinicio)
+    @Query("select e.id as id, a.id as animalId from Evaluacion e left join e.animal a "
+            + "where e.alertasPendientes = true order by e.id")
+    List<AlertaPendiente> findAlertasPendientes(Limit limit);
+
+    long countByAlertasPendientesTrue();
+
+    @Modifying
+    @Query("update Evaluacion e set e.alertasPendientes = false where e.id = :id")
+    int marcarAlertasRevisadas(@Param("id") Long id);
+
+    @Query("select distinct e.animal.id from Evaluacion e where e.animal is not null and not exists "
+            + "(select r.id from EvaluacionRollup r where r.animalId = e.animal.id)")
+    List<Long> findAnimalIdsSinRollup();
+
+    // Exportación: cursor de solo avance (MIN_VALUE activa el streaming fila a fila del driver de MySQL)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("select new com.bienestaranimal.app.dto.EvaluacionExportFila("
+            + "e.id, e.fechaHora, a.id, a.nombre, e.evaluador, e.cargo, e.recinto, e.puntuacionGlobal, "
+            + "e.puntuacionMental, e.nivelConfianza, p.id, p.categoria, r.seleccion, r.puntos, r.comentario) "
+            + "from Evaluacion e left join e.animal a left join e.respuestasDetalladas r left join r.pregunta p "
+            + "order by e.id, r.id")
+    Stream<EvaluacionExportFila> streamExport();
+
+    // Backfill: evaluaciones anteriores a las subpuntuaciones persistidas. Corre con la API abierta,
+    // así que el lote se bloquea para que una edición concurrente espere y no quede pisada
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<Evaluacion> findByPuntuacionMentalIsNullOrderByIdAsc(Limit limit);
+
+    // Proyección del listado: una sola sentencia, sin cargar respuestas ni animales
+    String RESUMEN_SELECT = "select new com.bienestaranimal.app.dto.EvaluacionResumenDTO("
+            + "e.id, e.fechaHora, a.nombre, a.id, e.evaluador, e.cargo, e.puntuacionGlobal, e.nivelConfianza, "
+            + "e.puntuacionMental, e.puntuacionNutricion, e.puntuacionAlojamiento, e.puntuacionSalud, "
+            + "e.puntuacionComportamiento) "
+            + "from Evaluacion e left join e.animal a ";
+
+    @Query(RESUMEN_SELECT + "order by e.fechaHora desc, e.id desc")
+    List<EvaluacionResumenDTO> findAllResumen();
+
+    @Query(RESUMEN_SELECT + "order by e.fechaHora desc, e.id desc")
+    List<EvaluacionResumenDTO> findResumenFirstPage(Limit limit);
+
+    // Keyset: continúa estrictamente después de (fechaHora, id) del último elemento servido
+    @Query(RESUMEN_SELECT
+            + "where e.fechaHora < :fechaHora or (e.fechaHora = :fechaHora and e.id < :id) "
+            + "order by e.fechaHora desc, e.id desc")
+    List<EvaluacionResumenDTO> findResumenAfter(@Param("fechaHora") LocalDateTime fechaHora,
+            @Param("id") Long id, Limit limit);
 }
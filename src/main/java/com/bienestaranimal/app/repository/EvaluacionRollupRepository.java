@@ -0,0 +1,67 @@
+package com.bienestaranimal.app.repository;
+
+import com.bienestaranimal.app.model.EvaluacionRollup;
+import com.bienestaranimal.app.model.Granularidad;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+public interface EvaluacionRollupRepository extends JpaRepository<EvaluacionRollup, Long> {
+
+    List<EvaluacionRollup> findByAnimalIdAndGranularidadOrderByInicioAsc(Long animalId, Granularidad granularidad);
+
+    // Bloqueo de fila para que un recálculo no se cruce con otro sobre el mismo intervalo
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<EvaluacionRollup> findByAnimalIdAndGranularidadAndInicio(Long animalId, Granularidad granularidad,
+            LocalDate inicio);
+
+    /**
+     * Suma el delta de una evaluación a su intervalo, creándolo si no existe, en
+     * una sola sentencia. Un SELECT ... FOR UPDATE no bloquea una fila que aún no
+     * existe: dos primeras evaluaciones simultáneas de un intervalo nuevo
+     * chocaban en uk_rollup_animal_bucket y una de ellas fallaba entera.
+     * Se declara la tabla afectada para que Hibernate no vacíe por precaución
+     * todas las regiones de la caché de segundo nivel.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "evaluaciones_rollup"))
+    @Query(value = "insert into evaluaciones_rollup (animal_id, granularidad, inicio, cantidad, "
+            + "cuenta_global, suma_global, min_global, max_global, cuenta_mental, suma_mental, "
+            + "cuenta_nutricion, suma_nutricion, cuenta_alojamiento, suma_alojamiento, "
+            + "cuenta_salud, suma_salud, cuenta_comportamiento, suma_comportamiento) values ("
+            + ":#{#d.animalId}, :#{#d.granularidad.name()}, :#{#d.inicio}, :#{#d.cantidad}, "
+            + ":#{#d.cuentaGlobal}, :#{#d.sumaGlobal}, :#{#d.minGlobal}, :#{#d.maxGlobal}, "
+            + ":#{#d.cuentaMental}, :#{#d.sumaMental}, :#{#d.cuentaNutricion}, :#{#d.sumaNutricion}, "
+            + ":#{#d.cuentaAlojamiento}, :#{#d.sumaAlojamiento}, :#{#d.cuentaSalud}, :#{#d.sumaSalud}, "
+            + ":#{#d.cuentaComportamiento}, :#{#d.sumaComportamiento}) "
+            + "on duplicate key update cantidad = cantidad + values(cantidad), "
+            + "cuenta_global = cuenta_global + values(cuenta_global), "
+            + "suma_global = suma_global + values(suma_global), "
+            + "min_global = coalesce(least(min_global, values(min_global)), min_global, values(min_global)), "
+            + "max_global = coalesce(greatest(max_global, values(max_global)), max_global, values(max_global)), "
+            + "cuenta_mental = cuenta_mental + values(cuenta_mental), "
+            + "suma_mental = suma_mental + values(suma_mental), "
+            + "cuenta_nutricion = cuenta_nutricion + values(cuenta_nutricion), "
+            + "suma_nutricion = suma_nutricion + values(suma_nutricion), "
+            + "cuenta_alojamiento = cuenta_alojamiento + values(cuenta_alojamiento), "
+            + "suma_alojamiento = suma_alojamiento + values(suma_alojamiento), "
+            + "cuenta_salud = cuenta_salud + values(cuenta_salud), "
+            + "suma_salud = suma_salud + values(suma_salud), "
+            + "cuenta_comportamiento = cuenta_comportamiento + values(cuenta_comportamiento), "
+            + "suma_comportamiento = suma_comportamiento + values(suma_comportamiento)", nativeQuery = true)
+    void sumar(@Param("d") EvaluacionRollup delta);
+
+    @Modifying
+    @Query("delete from EvaluacionRollup r where r.animalId = :animalId")
+    void deleteByAnimalId(@Param("animalId") Long animalId);
+}
@@ -1,12 +1,19 @@
 package com.bienestaranimal.app.repository;
 
 import com.bienestaranimal.app.model.PreguntaEvaluacion;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface PreguntaRepository extends JpaRepository<PreguntaEvaluacion, Long> {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<PreguntaEvaluacion> findByCategoria(String categoria);
+
+    List<PreguntaEvaluacion> findByUpdatedAtAfter(LocalDateTime since);
 }
@@ -1,9 +1,41 @@
 package com.bienestaranimal.app.repository;
 
+import com.bienestaranimal.app.dto.CategoriaPuntuacionDTO;
 import com.bienestaranimal.app.model.RespuestaPregunta;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface RespuestaPreguntaRepository extends JpaRepository<RespuestaPregunta, Long> {
+
+    // Radar: agregado por categoría en la base de datos, sin traer las respuestas
+    @Query("select new com.bienestaranimal.app.dto.CategoriaPuntuacionDTO(p.categoria, avg(r.puntos), count(r)) "
+            + "from RespuestaPregunta r join r.pregunta p "
+            + "where r.evaluacion.id = :evaluacionId and r.evaluacion.animal.id = :animalId "
+            + "group by p.categoria order by p.categoria")
+    List<CategoriaPuntuacionDTO> findPuntuacionPorCategoria(@Param("animalId") Long animalId,
+            @Param("evaluacionId") Long evaluacionId);
+
+    @Query("select count(r) from RespuestaPregunta r join r.pregunta p where r.evaluacion.id = :evaluacionId "
+            + "and r.seleccion = :seleccion and upper(p.categoria) in :categorias")
+    long countBySeleccionEnCategorias(@Param("evaluacionId") Long evaluacionId,
+            @Param("seleccion") String seleccion, @Param("categorias") Collection<String> categorias);
+
+    // Borrado por conjuntos del historial de un animal (ver AnimalService.deleteById)
+    @Modifying
+    @Query("delete from RespuestaPregunta r where r.evaluacion.id in "
+            + "(select e.id from Evaluacion e where e.animal.id = :animalId)")
+    int deleteByAnimalId(@Param("animalId") Long animalId);
+
+    // Filas [evaluacionId, categoria, media de puntos]
+    @Query("select r.evaluacion.id, p.categoria, avg(r.puntos) from RespuestaPregunta r join r.pregunta p "
+            + "where r.evaluacion.id in :evaluacionIds and r.puntos is not null "
+            + "group by r.evaluacion.id, p.categoria")
+    List<Object[]> findMediasPorCategoria(@Param("evaluacionIds") Collection<Long> evaluacionIds);
 }
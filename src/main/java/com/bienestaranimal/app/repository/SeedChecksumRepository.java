@@ -0,0 +1,7 @@
+package com.bienestaranimal.app.repository;
+
+import com.bienestaranimal.app.model.SeedChecksum;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface SeedChecksumRepository extends JpaRepository<SeedChecksum, String> {
+}
@@ -0,0 +1,20 @@
+package com.bienestaranimal.app.repository;
+
+import com.bienestaranimal.app.model.TokenRevocado;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface TokenRevocadoRepository extends JpaRepository<TokenRevocado, String> {
+    List<TokenRevocado> findByExpiraEnAfter(LocalDateTime ahora);
+
+    @Transactional
+    @Modifying
+    @Query("delete from TokenRevocado t where t.expiraEn <= :ahora")
+    int deleteCaducados(@Param("ahora") LocalDateTime ahora);
+}
@@ -0,0 +1,21 @@
+package com.bienestaranimal.app.repository;
+
+import com.bienestaranimal.app.model.Tombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface TombstoneRepository extends JpaRepository<Tombstone, Long> {
+    List<Tombstone> findByDeletedAtAfter(LocalDateTime since);
+
+    // Una sola sentencia INSERT ... SELECT para todas las evaluaciones de un animal
+    @Modifying
+    @Query("insert into Tombstone (tipo, entidadId, deletedAt) "
+            + "select com.bienestaranimal.app.model.TipoEntidad.EVALUACION, e.id, :ahora "
+            + "from Evaluacion e where e.animal.id = :animalId")
+    int insertEvaluacionesDeAnimal(@Param("animalId") Long animalId, @Param("ahora") LocalDateTime ahora);
+}
@@ -5,6 +5,8 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import java.util.Optional;
 
 public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
+    // Sin caché de Hibernate: el filtro JWT ya cachea por email (UsuarioCache) y el login
+    // debe leer siempre la contraseña vigente
     Optional<Usuario> findByEmail(String email);
 
     boolean existsByEmail(String email);
@@ -0,0 +1,98 @@
+package com.bienestaranimal.app.security;
+
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ejecuta el hash de contraseñas (BCrypt, caro a propósito) en un pool propio
+ * y acotado. Como mucho hay hilos + cola peticiones esperando un hash; el resto
+ * recibe un 429 inmediato en vez de ocupar CPU que necesitan las demás llamadas.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolTaskExecutor executor;
+
+    private final LongAdder operaciones = new LongAdder();
+    private final LongAdder rechazadas = new LongAdder();
+    private final LongAdder nanosHash = new LongAdder();
+    private final LongAdder nanosEspera = new LongAdder();
+    private final AtomicLong maxNanosHash = new AtomicLong();
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, ThreadPoolTaskExecutor executor) {
+        this.delegate = delegate;
+        this.executor = executor;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return ejecutar(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return ejecutar(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T ejecutar(Callable<T> tarea) {
+        long encolado = System.nanoTime();
+        Future<T> futuro;
+        try {
+            futuro = executor.submit(() -> {
+                long inicio = System.nanoTime();
+                nanosEspera.add(inicio - encolado);
+                try {
+                    return tarea.call();
+                } finally {
+                    long duracion = System.nanoTime() - inicio;
+                    nanosHash.add(duracion);
+                    maxNanosHash.accumulateAndGet(duracion, Math::max);
+                    operaciones.increment();
+                }
+            });
+        } catch (TaskRejectedException e) {
+            rechazadas.increment();
+            throw new DemasiadasPeticionesException("Servidor ocupado, inténtalo de nuevo en unos segundos", 2);
+        }
+
+        try {
+            return futuro.get();
+        } catch (InterruptedException e) {
+            futuro.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Hash de contraseña interrumpido", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    public Map<String, Object> getMetricas() {
+        long n = operaciones.sum();
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("operaciones", n);
+        m.put("rechazadas", rechazadas.sum());
+        m.put("hashMedioMs", n == 0 ? 0.0 : nanosHash.sum() / 1e6 / n);
+        m.put("hashMaxMs", maxNanosHash.get() / 1e6);
+        m.put("esperaMediaMs", n == 0 ? 0.0 : nanosEspera.sum() / 1e6 / n);
+        m.put("hilosActivos", executor.getActiveCount());
+        m.put("enCola", executor.getThreadPoolExecutor().getQueue().size());
+        return m;
+    }
+}
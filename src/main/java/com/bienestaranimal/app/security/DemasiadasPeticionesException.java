@@ -0,0 +1,23 @@
+package com.bienestaranimal.app.security;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+// 429 con Retry-After: se rechaza rápido en lugar de encolar más trabajo
+public class DemasiadasPeticionesException extends ResponseStatusException {
+
+    private final long retryAfterSegundos;
+
+    public DemasiadasPeticionesException(String motivo, long retryAfterSegundos) {
+        super(HttpStatus.TOO_MANY_REQUESTS, motivo);
+        this.retryAfterSegundos = retryAfterSegundos;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSegundos));
+        return headers;
+    }
+}
@@ -1,5 +1,9 @@
 package com.bienestaranimal.app.security;
 
+import com.bienestaranimal.app.model.Role;
+import com.bienestaranimal.app.model.Usuario;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,8 +12,6 @@ import lombok.RequiredArgsConstructor;
 import jakarta.annotation.Nonnull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -21,7 +23,8 @@ import java.io.IOException;
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtUtils jwtUtils;
-    private final UserDetailsService userDetailsService;
+    private final UsuarioCache usuarioCache;
+    private final TokenRevocationList revocationList;
 
     @Override
     protected void doFilterInternal(
@@ -29,29 +32,57 @@ public class JwtAuthFilter extends OncePerRequestFilter {
             @Nonnull HttpServletResponse response,
             @Nonnull FilterChain filterChain) throws ServletException, IOException {
         final String authHeader = request.getHeader("Authorization");
-        final String jwt;
-        final String userEmail;
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
             return;
         }
 
-        jwt = authHeader.substring(7);
-        userEmail = jwtUtils.extractUsername(jwt);
-
-        if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
-
-            if (jwtUtils.isTokenValid(jwt, userDetails)) {
+        if (SecurityContextHolder.getContext().getAuthentication() == null) {
+            Usuario usuario = autenticar(authHeader.substring(7));
+            if (usuario != null) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails,
+                        usuario,
                         null,
-                        userDetails.getAuthorities());
+                        usuario.getAuthorities());
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
             }
         }
         filterChain.doFilter(request, response);
     }
+
+    // Una sola verificación del token; un token inválido o caducado deja la petición sin autenticar
+    private Usuario autenticar(String jwt) {
+        Claims claims;
+        try {
+            claims = jwtUtils.validar(jwt);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+        // Los tokens de refresco no autentican peticiones; los revocados se descartan sin ir a la base de datos
+        if (JwtUtils.isRefresh(claims) || revocationList.isRevocado(claims.getId())) {
+            return null;
+        }
+        String email = claims.getSubject();
+        if (email == null) {
+            return null;
+        }
+
+        Object id = claims.get(JwtUtils.CLAIM_USUARIO_ID);
+        Object role = claims.get(JwtUtils.CLAIM_ROLE);
+        if (id instanceof Number numero && role instanceof String nombreRole) {
+            try {
+                return Usuario.builder()
+                        .id(numero.longValue())
+                        .email(email)
+                        .role(Role.valueOf(nombreRole))
+                        .build();
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+        // Tokens emitidos antes de incluir id y rol
+        return usuarioCache.findByEmail(email).orElse(null);
+    }
 }
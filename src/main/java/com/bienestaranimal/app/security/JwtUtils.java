@@ -1,8 +1,10 @@
 package com.bienestaranimal.app.security;
 
+import com.bienestaranimal.app.model.Usuario;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
@@ -11,63 +13,78 @@ import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.UUID;
 
 @Component
 public class JwtUtils {
 
+    public static final String CLAIM_USUARIO_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_TIPO = "typ";
+    public static final String TIPO_REFRESH = "refresh";
+
     @Value("${jwt.secret}")
     private String secretKey;
 
     @Value("${jwt.expiration}")
     private long jwtExpiration;
 
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
-    }
+    @Value("${jwt.refresh-expiration:1209600000}")
+    private long refreshExpiration;
+
+    // Clave y parser se construyen una vez: JwtParser es inmutable y seguro entre hilos
+    private Key signInKey;
+    private JwtParser parser;
 
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+    @PostConstruct
+    void init() {
+        signInKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        parser = Jwts.parserBuilder().setSigningKey(signInKey).build();
     }
 
     public String generateToken(UserDetails userDetails) {
-        return generateToken(new HashMap<>(), userDetails);
+        Map<String, Object> claims = new HashMap<>();
+        // Id y rol viajan en el token para construir el usuario autenticado sin consultar la base de datos
+        if (userDetails instanceof Usuario usuario && usuario.getRole() != null) {
+            claims.put(CLAIM_USUARIO_ID, usuario.getId());
+            claims.put(CLAIM_ROLE, usuario.getRole().name());
+        }
+        return generateToken(claims, userDetails);
     }
 
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
-        return Jwts.builder()
-                .setClaims(extraClaims)
-                .setSubject(userDetails.getUsername())
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
-                .compact();
+        return build(extraClaims, userDetails.getUsername(), jwtExpiration);
     }
 
-    public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+    // Token de refresco de larga duración: solo sirve para pedir un nuevo par en /api/usuarios/refresh
+    public String generateRefreshToken(UserDetails userDetails) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(CLAIM_TIPO, TIPO_REFRESH);
+        return build(claims, userDetails.getUsername(), refreshExpiration);
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    // Cada token lleva un jti único para poder revocarlo individualmente
+    private String build(Map<String, Object> claims, String subject, long duracion) {
+        long ahora = System.currentTimeMillis();
+        return Jwts.builder()
+                .setClaims(claims)
+                .setId(UUID.randomUUID().toString())
+                .setSubject(subject)
+                .setIssuedAt(new Date(ahora))
+                .setExpiration(new Date(ahora + duracion))
+                .signWith(signInKey, SignatureAlgorithm.HS256)
+                .compact();
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    public static boolean isRefresh(Claims claims) {
+        return TIPO_REFRESH.equals(claims.get(CLAIM_TIPO));
     }
 
-    private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    /**
+     * Verifica firma y caducidad en una sola pasada y devuelve los claims.
+     * Lanza JwtException si el token no es válido o ha caducado.
+     */
+    public Claims validar(String token) {
+        return parser.parseClaimsJws(token).getBody();
     }
 }
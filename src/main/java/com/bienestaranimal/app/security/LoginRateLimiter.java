@@ -0,0 +1,82 @@
+package com.bienestaranimal.app.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Límite de intentos de login por ventana fija: todos los intentos cuentan por
+ * IP y solo los fallidos por email, para frenar el relleno de credenciales sin
+ * bloquear a varios cuidadores que entran desde la misma red al cambiar de turno.
+ * Se comprueba antes de calcular ningún hash.
+ */
+@Component
+public class LoginRateLimiter {
+
+    private final int maxPorIp;
+    private final int maxFallosPorEmail;
+    private final Duration ventana;
+    private final Cache<String, AtomicInteger> intentosPorIp;
+    private final Cache<String, AtomicInteger> fallosPorEmail;
+    private final LongAdder bloqueados = new LongAdder();
+
+    @Autowired
+    public LoginRateLimiter(@Value("${bienestar.login.max-por-ip:30}") int maxPorIp,
+            @Value("${bienestar.login.max-fallos-por-email:5}") int maxFallosPorEmail,
+            @Value("${bienestar.login.ventana:1m}") Duration ventana) {
+        this(maxPorIp, maxFallosPorEmail, ventana, Ticker.systemTicker());
+    }
+
+    // Permite a los tests avanzar el reloj de las ventanas sin esperar
+    LoginRateLimiter(int maxPorIp, int maxFallosPorEmail, Duration ventana, Ticker ticker) {
+        this.maxPorIp = maxPorIp;
+        this.maxFallosPorEmail = maxFallosPorEmail;
+        this.ventana = ventana;
+        // La entrada caduca una ventana después de crearse: los incrementos no la renuevan
+        this.intentosPorIp = Caffeine.newBuilder().maximumSize(10_000).expireAfterWrite(ventana).ticker(ticker).build();
+        this.fallosPorEmail = Caffeine.newBuilder().maximumSize(10_000).expireAfterWrite(ventana).ticker(ticker).build();
+    }
+
+    public void comprobar(String ip, String email) {
+        if (ip != null && intentosPorIp.get(ip, k -> new AtomicInteger()).incrementAndGet() > maxPorIp) {
+            rechazar();
+        }
+        AtomicInteger fallos = email != null ? fallosPorEmail.getIfPresent(clave(email)) : null;
+        if (fallos != null && fallos.get() >= maxFallosPorEmail) {
+            rechazar();
+        }
+    }
+
+    public void registrarFallo(String email) {
+        if (email != null) {
+            fallosPorEmail.get(clave(email), k -> new AtomicInteger()).incrementAndGet();
+        }
+    }
+
+    public void registrarExito(String email) {
+        if (email != null) {
+            fallosPorEmail.invalidate(clave(email));
+        }
+    }
+
+    public long getBloqueados() {
+        return bloqueados.sum();
+    }
+
+    private void rechazar() {
+        bloqueados.increment();
+        throw new DemasiadasPeticionesException("Demasiados intentos de inicio de sesión", ventana.toSeconds());
+    }
+
+    private static String clave(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+}
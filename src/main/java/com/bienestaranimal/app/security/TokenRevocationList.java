@@ -0,0 +1,78 @@
+package com.bienestaranimal.app.security;
+
+import com.bienestaranimal.app.model.TokenRevocado;
+import com.bienestaranimal.app.repository.TokenRevocadoRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lista de revocación en memoria: jti → instante de caducidad del token.
+ * El filtro JWT la consulta en O(1) sin ir a la base de datos; la tabla
+ * tokens_revocados solo se escribe al revocar y se lee al arrancar. Las
+ * entradas caducadas se purgan porque el propio token ya no sería válido.
+ */
+@Component
+@RequiredArgsConstructor
+public class TokenRevocationList {
+
+    private static final long PURGA_CADA_MS = 10 * 60 * 1000;
+
+    private final TokenRevocadoRepository tokenRevocadoRepository;
+
+    private final Map<String, Long> revocados = new ConcurrentHashMap<>();
+    private volatile long ultimaPurga = 0;
+
+    @PostConstruct
+    void cargar() {
+        LocalDateTime ahora = LocalDateTime.now();
+        tokenRevocadoRepository.deleteCaducados(ahora);
+        for (TokenRevocado t : tokenRevocadoRepository.findByExpiraEnAfter(ahora)) {
+            revocados.put(t.getJti(), t.getExpiraEn().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        }
+        ultimaPurga = System.currentTimeMillis();
+        System.out.println("TokenRevocationList: " + revocados.size() + " tokens revocados cargados.");
+    }
+
+    public boolean isRevocado(String jti) {
+        return jti != null && revocados.containsKey(jti);
+    }
+
+    /**
+     * Revoca el token de forma atómica. Devuelve false si ya estaba revocado
+     * (o no se puede revocar): de dos rotaciones simultáneas del mismo token
+     * de refresco solo una obtiene true.
+     */
+    public boolean revocar(String jti, Date expiracion) {
+        if (jti == null || expiracion == null || expiracion.getTime() <= System.currentTimeMillis()) {
+            return false;
+        }
+        boolean revocado = revocados.putIfAbsent(jti, expiracion.getTime()) == null;
+        if (revocado) {
+            tokenRevocadoRepository.save(TokenRevocado.builder()
+                    .jti(jti)
+                    .expiraEn(LocalDateTime.ofInstant(expiracion.toInstant(), ZoneId.systemDefault()))
+                    .build());
+        }
+        purgarSiToca();
+        return revocado;
+    }
+
+    private void purgarSiToca() {
+        long ahora = System.currentTimeMillis();
+        if (ahora - ultimaPurga < PURGA_CADA_MS) {
+            return;
+        }
+        ultimaPurga = ahora;
+        revocados.values().removeIf(expira -> expira <= ahora);
+        tokenRevocadoRepository.deleteCaducados(LocalDateTime.ofInstant(Instant.ofEpochMilli(ahora),
+                ZoneId.systemDefault()));
+    }
+}
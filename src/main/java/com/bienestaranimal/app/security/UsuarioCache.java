@@ -0,0 +1,46 @@
+package com.bienestaranimal.app.security;
+
+import com.bienestaranimal.app.model.Usuario;
+import com.bienestaranimal.app.repository.UsuarioRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Caché acotada y con caducidad de usuarios por email para el filtro JWT.
+ * Solo se usa con tokens que no traen el id y el rol; el login sigue
+ * leyendo de la base de datos para validar siempre la contraseña vigente.
+ * La aplicación no modifica ni borra usuarios (solo los da de alta), así que
+ * un cambio hecho directamente en la base de datos se ve al caducar la entrada.
+ */
+@Component
+public class UsuarioCache {
+
+    private final UsuarioRepository usuarioRepository;
+    private final Cache<String, Usuario> cache;
+
+    public UsuarioCache(UsuarioRepository usuarioRepository,
+            @Value("${bienestar.usuarios.cache.max:1000}") long max,
+            @Value("${bienestar.usuarios.cache.ttl:5m}") Duration ttl) {
+        this.usuarioRepository = usuarioRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(max)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public Optional<Usuario> findByEmail(String email) {
+        Usuario usuario = cache.getIfPresent(email);
+        if (usuario == null) {
+            usuario = usuarioRepository.findByEmail(email).orElse(null);
+            if (usuario != null) {
+                cache.put(email, usuario);
+            }
+        }
+        return Optional.ofNullable(usuario);
+    }
+}
@@ -0,0 +1,206 @@
+package com.bienestaranimal.app.service;
+
+import com.bienestaranimal.app.dto.AlertaPendiente;
+import com.bienestaranimal.app.dto.EvaluacionPuntuaciones;
+import com.bienestaranimal.app.model.Alerta;
+import com.bienestaranimal.app.model.TipoAlerta;
+import com.bienestaranimal.app.repository.AlertaRepository;
+import com.bienestaranimal.app.repository.EvaluacionRepository;
+import com.bienestaranimal.app.repository.RespuestaPreguntaRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.OptionalDouble;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Motor de alertas de bienestar. Se ejecuta en segundo plano cuando se ha
+ * confirmado una evaluación, así que no añade latencia al guardado, y compara
+ * la evaluación con el historial reciente del animal según umbrales
+ * configurables. Cada evaluación guardada queda marcada en la base de datos
+ * hasta que se evalúa, así que si la cola del pool está llena o la aplicación
+ * se reinicia no se pierde: se recupera periódicamente a partir de la marca.
+ */
+@Service
+public class AlertaService {
+
+    private final AlertaRepository alertaRepository;
+    private final EvaluacionRepository evaluacionRepository;
+    private final RespuestaPreguntaRepository respuestaPreguntaRepository;
+    private final ThreadPoolTaskExecutor alertasExecutor;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${bienestar.alertas.global-minimo:50}")
+    private int globalMinimo;
+
+    @Value("${bienestar.alertas.mental-minimo:40}")
+    private int mentalMinimo;
+
+    // Caída del estado mental respecto a la media de las evaluaciones anteriores
+    @Value("${bienestar.alertas.caida-mental:25}")
+    private int caidaMental;
+
+    @Value("${bienestar.alertas.historial:5}")
+    private int historial;
+
+    @Value("${bienestar.alertas.categorias-criticas:SALUD}")
+    private List<String> categoriasCriticas;
+
+    public AlertaService(AlertaRepository alertaRepository, EvaluacionRepository evaluacionRepository,
+            RespuestaPreguntaRepository respuestaPreguntaRepository,
+            @Qualifier("alertasExecutor") ThreadPoolTaskExecutor alertasExecutor,
+            TransactionTemplate transactionTemplate) {
+        this.alertaRepository = alertaRepository;
+        this.evaluacionRepository = evaluacionRepository;
+        this.respuestaPreguntaRepository = respuestaPreguntaRepository;
+        this.alertasExecutor = alertasExecutor;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    // Se ejecuta en el hilo de la petición tras el commit: solo encola, nunca evalúa aquí
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEvaluacionGuardada(EvaluacionGuardadaEvent event) {
+        if (!encolar(event)) {
+            System.out.println("AlertaService: cola de alertas llena, evaluación " + event.evaluacionId()
+                    + " pendiente de reintento");
+        }
+    }
+
+    // Reenvía al pool las evaluaciones que siguen marcadas. Solo con la cola vacía: así lo
+    // marcado no está esperando turno y la consulta no compite con un pool saturado
+    @Scheduled(fixedDelayString = "${bienestar.alertas.reintento-ms:5000}")
+    public void reintentarPendientes() {
+        if (alertasExecutor.getQueueSize() > 0) {
+            return;
+        }
+        for (AlertaPendiente p : evaluacionRepository.findAlertasPendientes(
+                Limit.of(Math.max(1, alertasExecutor.getQueueCapacity())))) {
+            if (!encolar(new EvaluacionGuardadaEvent(p.getId(), p.getAnimalId()))) {
+                return;
+            }
+        }
+    }
+
+    public long getPendientes() {
+        return evaluacionRepository.countByAlertasPendientesTrue();
+    }
+
+    public List<Alerta> findAll(Long animalId, boolean soloActivas) {
+        if (animalId != null) {
+            return alertaRepository.findByAnimalIdOrderByFechaHoraDesc(animalId).stream()
+                    .filter(a -> !soloActivas || !a.isResuelta())
+                    .toList();
+        }
+        return soloActivas ? alertaRepository.findByResueltaFalseOrderByFechaHoraDesc()
+                : alertaRepository.findAllByOrderByFechaHoraDesc();
+    }
+
+    public Alerta resolver(Long id) {
+        Alerta alerta = alertaRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Alerta no encontrada"));
+        alerta.setResuelta(true);
+        return alertaRepository.save(alerta);
+    }
+
+    private boolean encolar(EvaluacionGuardadaEvent event) {
+        try {
+            alertasExecutor.execute(() -> procesar(event));
+            return true;
+        } catch (TaskRejectedException e) {
+            return false;
+        }
+    }
+
+    private void procesar(EvaluacionGuardadaEvent event) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> evaluar(event.evaluacionId(), event.animalId()));
+        } catch (RuntimeException e) {
+            System.out.println("AlertaService: error al evaluar alertas de la evaluación " + event.evaluacionId()
+                    + ": " + e.getMessage());
+        }
+    }
+
+    void evaluar(Long evaluacionId, Long animalId) {
+        if (evaluacionId == null) {
+            return;
+        }
+        // Primero la marca: bloquea la fila, así una edición concurrente vuelve a marcarla
+        // después de este commit y se evalúa de nuevo con los datos nuevos
+        evaluacionRepository.marcarAlertasRevisadas(evaluacionId);
+        if (animalId == null) {
+            return;
+        }
+        EvaluacionPuntuaciones actual = evaluacionRepository.findPuntuacionesById(evaluacionId).orElse(null);
+        if (actual == null) {
+            return;
+        }
+
+        // Al editar una evaluación sus alertas se recalculan desde cero
+        alertaRepository.deleteByEvaluacionId(evaluacionId);
+        List<Alerta> alertas = new ArrayList<>();
+
+        Integer global = actual.getPuntuacionGlobal();
+        if (global != null && global < globalMinimo) {
+            alertas.add(nueva(animalId, evaluacionId, TipoAlerta.GLOBAL_BAJO,
+                    "Puntuación global " + global + " por debajo de " + globalMinimo));
+        }
+
+        Integer mental = actual.getPuntuacionMental();
+        if (mental != null && mental < mentalMinimo) {
+            alertas.add(nueva(animalId, evaluacionId, TipoAlerta.MENTAL_BAJO,
+                    "Estado mental " + mental + " por debajo de " + mentalMinimo));
+        }
+
+        if (mental != null) {
+            OptionalDouble mediaAnterior = evaluacionRepository
+                    .findPuntuacionesByAnimalIdOrderByFechaHoraDescIdDesc(animalId, Limit.of(historial + 1))
+                    .stream()
+                    .filter(p -> !p.getId().equals(evaluacionId))
+                    .map(EvaluacionPuntuaciones::getPuntuacionMental)
+                    .filter(Objects::nonNull)
+                    .limit(historial)
+                    .mapToInt(Integer::intValue)
+                    .average();
+            if (mediaAnterior.isPresent() && mediaAnterior.getAsDouble() - mental >= caidaMental) {
+                alertas.add(nueva(animalId, evaluacionId, TipoAlerta.CAIDA_MENTAL,
+                        String.format(Locale.ROOT, "Estado mental %d frente a una media reciente de %.0f", mental,
+                                mediaAnterior.getAsDouble())));
+            }
+        }
+
+        Set<String> criticas = categoriasCriticas.stream()
+                .map(c -> c.trim().toUpperCase(Locale.ROOT))
+                .collect(Collectors.toSet());
+        long respuestasC = respuestaPreguntaRepository.countBySeleccionEnCategorias(evaluacionId, "C", criticas);
+        if (respuestasC > 0) {
+            alertas.add(nueva(animalId, evaluacionId, TipoAlerta.SALUD_CRITICA,
+                    respuestasC + " respuesta(s) C en preguntas críticas (" + String.join(", ", criticas) + ")"));
+        }
+
+        alertaRepository.saveAll(alertas);
+    }
+
+    private static Alerta nueva(Long animalId, Long evaluacionId, TipoAlerta tipo, String mensaje) {
+        return Alerta.builder()
+                .animalId(animalId)
+                .evaluacionId(evaluacionId)
+                .tipo(tipo)
+                .mensaje(mensaje)
+                .fechaHora(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,198 @@
+package com.bienestaranimal.app.service;
+
+import com.bienestaranimal.app.model.Animal;
+import com.bienestaranimal.app.repository.AnimalRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Índice de trigramas en memoria sobre nombre, especie y notas de los
+ * animales. Los textos se pliegan (minúsculas, sin tildes ni diéresis) para
+ * que "aguila" encuentre "Águila Imperial Ibérica", y los resultados se
+ * ordenan por la proporción de trigramas de la búsqueda presentes en cada
+ * campo, ponderada por campo. Se mantiene al día con cada guardado o borrado
+ * confirmado.
+ */
+@Component
+@RequiredArgsConstructor
+public class AnimalSearchIndex {
+
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+    private static final Pattern NO_ALFANUMERICO = Pattern.compile("[^a-z0-9]+");
+
+    // Peso de cada campo: nombre, especie, notas
+    private static final int[] PESOS = { 3, 2, 1 };
+
+    // Fracción mínima de trigramas de la búsqueda que debe contener algún campo
+    private static final double COBERTURA_MINIMA = 0.5;
+
+    private final AnimalRepository animalRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Documento> documentos = new HashMap<>();
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+
+    // La invoca el DataLoader cuando termina de sembrar
+    public void reconstruir() {
+        List<Animal> animales = animalRepository.findAll();
+        lock.writeLock().lock();
+        try {
+            documentos.clear();
+            postings.clear();
+            animales.forEach(this::indexar);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // El índice solo refleja cambios confirmados: si la transacción se deshace
+    // no quedan animales fantasma en las búsquedas
+    public void actualizar(Animal animal) {
+        if (animal.getId() == null) {
+            return;
+        }
+        Transacciones.despuesDelCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                quitar(animal.getId());
+                indexar(animal);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void eliminar(Long animalId) {
+        Transacciones.despuesDelCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                quitar(animalId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /** Ids de los animales que casan con la búsqueda, de más a menos relevante. */
+    public List<Long> buscar(String consulta) {
+        String plegada = plegar(consulta);
+        Set<String> trigramasConsulta = trigramas(plegada);
+        if (trigramasConsulta.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Set<Long> candidatos = new HashSet<>();
+            for (String t : trigramasConsulta) {
+                candidatos.addAll(postings.getOrDefault(t, Set.of()));
+            }
+
+            List<Resultado> resultados = new ArrayList<>();
+            for (Long id : candidatos) {
+                Documento doc = documentos.get(id);
+                double mejor = 0;
+                for (int campo = 0; campo < PESOS.length; campo++) {
+                    int comunes = 0;
+                    for (String t : trigramasConsulta) {
+                        if (doc.trigramas[campo].contains(t)) {
+                            comunes++;
+                        }
+                    }
+                    double cobertura = (double) comunes / trigramasConsulta.size();
+                    if (cobertura < COBERTURA_MINIMA) {
+                        continue;
+                    }
+                    // Coincidencia literal de la búsqueda completa: por delante de las aproximadas
+                    double extra = doc.textos[campo].contains(plegada) ? 1 : 0;
+                    mejor = Math.max(mejor, PESOS[campo] * (cobertura + extra));
+                }
+                if (mejor > 0) {
+                    resultados.add(new Resultado(id, mejor, doc.textos[0]));
+                }
+            }
+
+            return resultados.stream()
+                    .sorted(Comparator.comparingDouble(Resultado::puntuacion).reversed()
+                            .thenComparing(Resultado::nombre))
+                    .map(Resultado::id)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void indexar(Animal animal) {
+        String[] textos = { plegar(animal.getNombre()), plegar(animal.getEspecie()), plegar(animal.getNotas()) };
+        @SuppressWarnings("unchecked")
+        Set<String>[] porCampo = new Set[textos.length];
+        for (int i = 0; i < textos.length; i++) {
+            porCampo[i] = trigramas(textos[i]);
+            for (String t : porCampo[i]) {
+                postings.computeIfAbsent(t, k -> new HashSet<>()).add(animal.getId());
+            }
+        }
+        documentos.put(animal.getId(), new Documento(textos, porCampo));
+    }
+
+    private void quitar(Long animalId) {
+        Documento anterior = documentos.remove(animalId);
+        if (anterior == null) {
+            return;
+        }
+        for (Set<String> campo : anterior.trigramas) {
+            for (String t : campo) {
+                Set<Long> ids = postings.get(t);
+                if (ids != null) {
+                    ids.remove(animalId);
+                    if (ids.isEmpty()) {
+                        postings.remove(t);
+                    }
+                }
+            }
+        }
+    }
+
+    static String plegar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        // NFD separa las tildes (y la de la ñ) de la letra base; después se eliminan
+        String s = Normalizer.normalize(texto.toLowerCase(Locale.ROOT), Normalizer.Form.NFD);
+        s = MARCAS.matcher(s).replaceAll("");
+        return NO_ALFANUMERICO.matcher(s).replaceAll(" ").trim();
+    }
+
+    static Set<String> trigramas(String plegado) {
+        Set<String> resultado = new HashSet<>();
+        if (plegado.isEmpty()) {
+            return resultado;
+        }
+        for (String palabra : plegado.split(" ")) {
+            String p = "  " + palabra + " ";
+            for (int i = 0; i + 3 <= p.length(); i++) {
+                resultado.add(p.substring(i, i + 3));
+            }
+        }
+        return resultado;
+    }
+
+    private record Documento(String[] textos, Set<String>[] trigramas) {
+    }
+
+    private record Resultado(Long id, double puntuacion, String nombre) {
+    }
+}
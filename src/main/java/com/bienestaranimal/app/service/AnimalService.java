@@ -1,24 +1,88 @@
 package com.bienestaranimal.app.service;
 
+import com.bienestaranimal.app.config.Escrituras;
+import com.bienestaranimal.app.dto.AnimalResumenDTO;
+import com.bienestaranimal.app.dto.PaginaDTO;
 import com.bienestaranimal.app.model.Animal;
+import com.bienestaranimal.app.model.TipoEntidad;
+import com.bienestaranimal.app.repository.AlertaRepository;
 import com.bienestaranimal.app.repository.AnimalRepository;
+import com.bienestaranimal.app.repository.EvaluacionRepository;
+import com.bienestaranimal.app.repository.RespuestaPreguntaRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 public class AnimalService {
 
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final Set<String> CAMPOS_CATALOGO = Set.of("id", "nombre", "especie", "fotoUrl");
+
     private final AnimalRepository animalRepository;
+    private final EvaluacionRepository evaluacionRepository;
+    private final RespuestaPreguntaRepository respuestaPreguntaRepository;
+    private final AlertaRepository alertaRepository;
+    private final EvaluacionRollupService rollupService;
+    private final TombstoneService tombstoneService;
+    private final DashboardService dashboardService;
+    private final AnimalSearchIndex searchIndex;
 
     public List<Animal> findAll() {
         return animalRepository.findAll();
     }
 
     public List<Animal> search(String query) {
-        return animalRepository.findByNombreContainingIgnoreCaseOrEspecieContainingIgnoreCase(query, query);
+        List<Long> ids = searchIndex.buscar(query);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        // Una consulta por clave primaria y se respeta el orden de relevancia del índice
+        Map<Long, Animal> porId = new HashMap<>();
+        animalRepository.findAllById(ids).forEach(a -> porId.put(a.getId(), a));
+        return ids.stream().map(porId::get).filter(Objects::nonNull).toList();
+    }
+
+    public PaginaDTO<Map<String, Object>> findCatalogo(int page, int size, String sort, String fields) {
+        Sort orden = parseSort(sort);
+        Pageable pageable = PageRequest.of(Math.max(page, 0), Math.max(1, Math.min(size, MAX_PAGE_SIZE)), orden);
+        Slice<AnimalResumenDTO> slice = animalRepository.findAllProjectedBy(pageable);
+
+        Set<String> campos = parseFields(fields);
+        List<Map<String, Object>> items = slice.getContent().stream()
+                .map(a -> {
+                    Map<String, Object> fila = new LinkedHashMap<>();
+                    if (campos.contains("id")) {
+                        fila.put("id", a.getId());
+                    }
+                    if (campos.contains("nombre")) {
+                        fila.put("nombre", a.getNombre());
+                    }
+                    if (campos.contains("especie")) {
+                        fila.put("especie", a.getEspecie());
+                    }
+                    if (campos.contains("fotoUrl")) {
+                        fila.put("fotoUrl", a.getFotoUrl());
+                    }
+                    return fila;
+                })
+                .toList();
+        return new PaginaDTO<>(items, slice.getNumber(), slice.getSize(), slice.hasNext());
     }
 
     public Animal findById(Long id) {
@@ -26,11 +90,61 @@ public class AnimalService {
                 .orElseThrow(() -> new RuntimeException("Animal no encontrado"));
     }
 
+    @Transactional(timeout = Escrituras.TIMEOUT_S)
     public Animal save(Animal animal) {
-        return animalRepository.save(animal);
+        Animal guardado = animalRepository.save(animal);
+        dashboardService.invalidar(guardado.getId());
+        searchIndex.actualizar(guardado);
+        return guardado;
+    }
+
+    // sort=campo[,asc|desc]; solo campos de la ficha
+    private Sort parseSort(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return Sort.by("nombre").and(Sort.by("id"));
+        }
+        String[] partes = sort.split(",");
+        String campo = partes[0].trim();
+        if (!CAMPOS_CATALOGO.contains(campo)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Campo de ordenación no válido: " + campo);
+        }
+        Sort.Direction direccion = partes.length > 1 && "desc".equalsIgnoreCase(partes[1].trim())
+                ? Sort.Direction.DESC
+                : Sort.Direction.ASC;
+        // El id desempata para que la paginación sea estable
+        return Sort.by(direccion, campo).and(Sort.by("id"));
+    }
+
+    private Set<String> parseFields(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return CAMPOS_CATALOGO;
+        }
+        Set<String> campos = new LinkedHashSet<>();
+        for (String f : fields.split(",")) {
+            String campo = f.trim();
+            if (!CAMPOS_CATALOGO.contains(campo)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Campo no válido: " + campo);
+            }
+            campos.add(campo);
+        }
+        return campos;
     }
 
+    @Transactional(timeout = Escrituras.TIMEOUT_S)
     public void deleteById(Long id) {
-        animalRepository.deleteById(id);
+        if (!animalRepository.existsById(id)) {
+            return;
+        }
+        // Borrado por conjuntos en orden de dependencias: una sentencia por tabla,
+        // sin cargar el historial en el contexto de persistencia
+        tombstoneService.registrarEvaluacionesDeAnimal(id);
+        tombstoneService.registrar(TipoEntidad.ANIMAL, List.of(id));
+        rollupService.eliminarAnimal(id);
+        alertaRepository.deleteByAnimalId(id);
+        respuestaPreguntaRepository.deleteByAnimalId(id);
+        evaluacionRepository.deleteByAnimalId(id);
+        animalRepository.bulkDeleteById(id);
+        dashboardService.invalidar(id);
+        searchIndex.eliminar(id);
     }
 }
@@ -0,0 +1,9 @@
+package com.bienestaranimal.app.service;
+
+import java.nio.file.Path;
+
+// Lo que necesita el controlador para servir un fichero sin volver a mirar el disco
+// nombre es el que ve el usuario al descargar (el original de la subida), no el del disco
+public record ArchivoDescarga(Path ruta, String mimeType, String nombre, long tamano, String etag,
+        boolean inmutable) {
+}
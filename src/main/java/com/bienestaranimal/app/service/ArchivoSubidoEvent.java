@@ -0,0 +1,5 @@
+package com.bienestaranimal.app.service;
+
+// Se publica cuando una subida escribe contenido nuevo en disco (no en duplicados)
+public record ArchivoSubidoEvent(String hash, String extension, String mimeType) {
+}
@@ -0,0 +1,60 @@
+package com.bienestaranimal.app.service;
+
+import com.bienestaranimal.app.config.ArranqueGate;
+import com.bienestaranimal.app.dto.PasoArranqueDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Línea temporal del arranque por fases, a partir de lo registrado por BufferingApplicationStartup
+@Service
+@RequiredArgsConstructor
+public class ArranqueService {
+
+    private final ConfigurableApplicationContext context;
+    private final ArranqueGate arranqueGate;
+
+    public Map<String, Object> getTimeline(long minMs) {
+        Map<String, Object> resultado = new LinkedHashMap<>();
+        resultado.put("listo", arranqueGate.isListo());
+
+        if (!(context.getApplicationStartup() instanceof BufferingApplicationStartup startup)) {
+            resultado.put("pasos", List.of());
+            return resultado;
+        }
+
+        // getBufferedTimeline no vacía el buffer: se puede consultar varias veces
+        StartupTimeline timeline = startup.getBufferedTimeline();
+        long origen = timeline.getStartTime().toEpochMilli();
+        resultado.put("inicio", timeline.getStartTime());
+        if (arranqueGate.isListo()) {
+            resultado.put("listoTrasMs", arranqueGate.getListoEn() - origen);
+        }
+
+        List<PasoArranqueDTO> pasos = timeline.getEvents().stream()
+                .filter(e -> e.getDuration().compareTo(Duration.ofMillis(minMs)) >= 0)
+                .map(e -> {
+                    Map<String, String> tags = new LinkedHashMap<>();
+                    e.getStartupStep().getTags().forEach(t -> tags.put(t.getKey(), t.getValue()));
+                    return new PasoArranqueDTO(
+                            e.getStartupStep().getId(),
+                            e.getStartupStep().getParentId(),
+                            e.getStartupStep().getName(),
+                            e.getStartTime().toEpochMilli() - origen,
+                            e.getDuration().toMillis(),
+                            tags);
+                })
+                .sorted(Comparator.comparingLong(PasoArranqueDTO::getInicioMs))
+                .toList();
+        resultado.put("pasos", pasos);
+        return resultado;
+    }
+}
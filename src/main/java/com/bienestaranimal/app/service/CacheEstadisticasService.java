@@ -0,0 +1,54 @@
+package com.bienestaranimal.app.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Aciertos y fallos de la caché de segundo nivel y de la caché de consultas de Hibernate.
+// Requiere hibernate.generate_statistics (HIBERNATE_STATISTICS=true)
+@Service
+@RequiredArgsConstructor
+public class CacheEstadisticasService {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public Map<String, Object> getEstadisticas() {
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Map<String, Object> resultado = new LinkedHashMap<>();
+        // Desactivadas los contadores se quedan a cero: se dice en lugar de devolver ceros engañosos
+        resultado.put("habilitadas", stats.isStatisticsEnabled());
+        if (!stats.isStatisticsEnabled()) {
+            return resultado;
+        }
+
+        Map<String, Object> regiones = new LinkedHashMap<>();
+        for (String region : stats.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics r = stats.getCacheRegionStatistics(region);
+            if (r != null) {
+                regiones.put(region, contadores(r.getHitCount(), r.getMissCount(), r.getPutCount()));
+            }
+        }
+
+        resultado.put("regiones", regiones);
+        resultado.put("consultas", contadores(stats.getQueryCacheHitCount(), stats.getQueryCacheMissCount(),
+                stats.getQueryCachePutCount()));
+        resultado.put("sentenciasPreparadas", stats.getPrepareStatementCount());
+        return resultado;
+    }
+
+    private Map<String, Object> contadores(long aciertos, long fallos, long insertados) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("aciertos", aciertos);
+        m.put("fallos", fallos);
+        m.put("insertados", insertados);
+        long total = aciertos + fallos;
+        m.put("tasaAcierto", total == 0 ? 0.0 : (double) aciertos / total);
+        return m;
+    }
+}
@@ -0,0 +1,105 @@
+package com.bienestaranimal.app.service;
+
+import com.bienestaranimal.app.dto.DashboardAnimalDTO;
+import com.bienestaranimal.app.dto.DashboardFila;
+import com.bienestaranimal.app.repository.AnimalRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resumen del dashboard por animal, servido desde memoria. La primera lectura
+ * carga todos los animales con una consulta; después, cada escritura marca
+ * solo su animal como pendiente y la siguiente lectura recarga únicamente los
+ * pendientes. La invalidación se aplica tras el commit para no volver a
+ * cachear datos sin confirmar.
+ */
+@Service
+@RequiredArgsConstructor
+public class DashboardService {
+
+    private final AnimalRepository animalRepository;
+
+    private final Map<Long, Entrada> cache = new ConcurrentHashMap<>();
+    private final Set<Long> pendientes = ConcurrentHashMap.newKeySet();
+    private volatile boolean cargado = false;
+
+    public List<DashboardAnimalDTO> getDashboard() {
+        if (!cargado) {
+            synchronized (this) {
+                if (!cargado) {
+                    pendientes.clear();
+                    cache.clear();
+                    animalRepository.findDashboard().forEach(f -> cache.put(f.getAnimalId(), Entrada.of(f)));
+                    cargado = true;
+                }
+            }
+        } else if (!pendientes.isEmpty()) {
+            refrescarPendientes();
+        }
+
+        LocalDate hoy = LocalDate.now();
+        List<DashboardAnimalDTO> resultado = new ArrayList<>(cache.size());
+        cache.values().stream()
+                .sorted(Comparator.comparing(Entrada::nombre, Comparator.nullsLast(String::compareToIgnoreCase)))
+                .forEach(e -> resultado.add(e.toDTO(hoy)));
+        return resultado;
+    }
+
+    // Vaciar, consultar y escribir bajo el mismo cerrojo: si dos lecturas refrescaran el
+    // mismo id a la vez, la que consultó antes podría escribir la última una fila ya
+    // obsoleta sin que quedara nada pendiente que la corrigiera
+    private synchronized void refrescarPendientes() {
+        if (pendientes.isEmpty()) {
+            return;
+        }
+        Set<Long> ids = new HashSet<>(pendientes);
+        pendientes.removeAll(ids);
+        Set<Long> encontrados = new HashSet<>();
+        animalRepository.findDashboardByIds(ids).forEach(f -> {
+            cache.put(f.getAnimalId(), Entrada.of(f));
+            encontrados.add(f.getAnimalId());
+        });
+        ids.stream().filter(id -> !encontrados.contains(id)).forEach(cache::remove);
+    }
+
+    public void invalidar(Long animalId) {
+        if (animalId == null) {
+            return;
+        }
+        Transacciones.despuesDelCommit(() -> pendientes.add(animalId));
+    }
+
+    private record Entrada(Long animalId, String nombre, String especie, String fotoUrl, LocalDateTime fechaHora,
+            Integer global, Integer mental, Integer globalAnterior) {
+
+        static Entrada of(DashboardFila f) {
+            return new Entrada(f.getAnimalId(), f.getNombre(), f.getEspecie(), f.getFotoUrl(), f.getFechaHora(),
+                    f.getPuntuacionGlobal(), f.getPuntuacionMental(), f.getGlobalAnterior());
+        }
+
+        DashboardAnimalDTO toDTO(LocalDate hoy) {
+            return DashboardAnimalDTO.builder()
+                    .animalId(animalId)
+                    .nombre(nombre)
+                    .especie(especie)
+                    .fotoUrl(fotoUrl)
+                    .ultimaEvaluacion(fechaHora != null ? fechaHora.toString() : null)
+                    .puntuacionGlobal(global)
+                    .puntuacionMental(mental)
+                    .tendencia(global != null && globalAnterior != null ? global - globalAnterior : null)
+                    .diasDesdeUltima(fechaHora != null ? ChronoUnit.DAYS.between(fechaHora.toLocalDate(), hoy) : null)
+                    .build();
+        }
+    }
+}
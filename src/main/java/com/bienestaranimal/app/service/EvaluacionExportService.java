@@ -0,0 +1,138 @@
+package com.bienestaranimal.app.service;
+
+import com.bienestaranimal.app.dto.EvaluacionExportFila;
+import com.bienestaranimal.app.repository.EvaluacionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Exporta todo el histórico de evaluaciones escribiendo directamente en la
+ * respuesta mientras se recorre el cursor, de modo que la memoria usada no
+ * depende del tamaño del histórico.
+ */
+@Service
+@RequiredArgsConstructor
+public class EvaluacionExportService {
+
+    private static final String[] CSV_CABECERA = {
+            "evaluacionId", "fechaHora", "animalId", "animalNombre", "evaluador", "cargo", "recinto",
+            "puntuacionGlobal", "puntuacionMental", "nivelConfianza", "preguntaId", "categoria", "seleccion",
+            "puntos", "comentario" };
+
+    private final EvaluacionRepository evaluacionRepository;
+    private final JsonMapper jsonMapper;
+
+    /** Una línea JSON por evaluación, con sus respuestas anidadas. */
+    @Transactional(readOnly = true)
+    public void exportarNdjson(OutputStream out) throws IOException {
+        try (Stream<EvaluacionExportFila> filas = evaluacionRepository.streamExport()) {
+            // Las filas llegan ordenadas por evaluación: se agrupan las consecutivas
+            Map<String, Object> actual = null;
+            Long actualId = null;
+            for (EvaluacionExportFila f : (Iterable<EvaluacionExportFila>) filas::iterator) {
+                if (!f.getEvaluacionId().equals(actualId)) {
+                    escribirLinea(out, actual);
+                    actual = cabeceraEvaluacion(f);
+                    actualId = f.getEvaluacionId();
+                }
+                if (f.getPreguntaId() != null || f.getPuntos() != null) {
+                    @SuppressWarnings("unchecked")
+                    List<Map<String, Object>> respuestas = (List<Map<String, Object>>) actual.get("respuestas");
+                    Map<String, Object> r = new LinkedHashMap<>();
+                    r.put("preguntaId", f.getPreguntaId());
+                    r.put("categoria", f.getCategoria());
+                    r.put("seleccion", f.getSeleccion());
+                    r.put("puntos", f.getPuntos());
+                    r.put("comentario", f.getComentario());
+                    respuestas.add(r);
+                }
+            }
+            escribirLinea(out, actual);
+        }
+        out.flush();
+    }
+
+    /** Una fila CSV por respuesta (las evaluaciones sin respuestas ocupan una fila). */
+    @Transactional(readOnly = true)
+    public void exportarCsv(OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(String.join(",", CSV_CABECERA));
+        writer.write("\n");
+        try (Stream<EvaluacionExportFila> filas = evaluacionRepository.streamExport()) {
+            filas.forEach(f -> {
+                try {
+                    writer.write(csvFila(f));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+        writer.flush();
+    }
+
+    private Map<String, Object> cabeceraEvaluacion(EvaluacionExportFila f) {
+        Map<String, Object> e = new LinkedHashMap<>();
+        e.put("id", f.getEvaluacionId());
+        e.put("fechaHora", f.getFechaHora() != null ? f.getFechaHora().toString() : null);
+        e.put("animalId", f.getAnimalId());
+        e.put("animalNombre", f.getAnimalNombre());
+        e.put("evaluador", f.getEvaluador());
+        e.put("cargo", f.getCargo());
+        e.put("recinto", f.getRecinto());
+        e.put("puntuacionGlobal", f.getPuntuacionGlobal());
+        e.put("puntuacionMental", f.getPuntuacionMental());
+        e.put("nivelConfianza", f.getNivelConfianza());
+        e.put("respuestas", new ArrayList<Map<String, Object>>());
+        return e;
+    }
+
+    private void escribirLinea(OutputStream out, Map<String, Object> evaluacion) throws IOException {
+        if (evaluacion == null) {
+            return;
+        }
+        out.write(jsonMapper.writeValueAsBytes(evaluacion));
+        out.write('\n');
+    }
+
+    private static String csvFila(EvaluacionExportFila f) {
+        Object[] valores = {
+                f.getEvaluacionId(), f.getFechaHora(), f.getAnimalId(), f.getAnimalNombre(), f.getEvaluador(),
+                f.getCargo(), f.getRecinto(), f.getPuntuacionGlobal(), f.getPuntuacionMental(),
+                f.getNivelConfianza(), f.getPreguntaId(), f.getCategoria(), f.getSeleccion(), f.getPuntos(),
+                f.getComentario() };
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < valores.length; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(csvCampo(valores[i]));
+        }
+        return sb.append('\n').toString();
+    }
+
+    private static String csvCampo(Object valor) {
+        if (valor == null) {
+            return "";
+        }
+        String s = valor.toString();
+        if (s.contains(",") || s.contains("\"") || s.contains("\n") || s.contains("\r")) {
+            return "\"" + s.replace("\"", "\"\"") + "\"";
+        }
+        return s;
+    }
+}
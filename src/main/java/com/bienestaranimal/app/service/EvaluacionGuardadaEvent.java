@@ -0,0 +1,5 @@
+package com.bienestaranimal.app.service;
+
+// Se publica al guardar una evaluación; los oyentes lo reciben tras el commit
+public record EvaluacionGuardadaEvent(Long evaluacionId, Long animalId) {
+}
@@ -0,0 +1,158 @@
+package com.bienestaranimal.app.service;
+
+import com.bienestaranimal.app.dto.EvaluacionPuntuaciones;
+import com.bienestaranimal.app.dto.SeriePuntoDTO;
+import com.bienestaranimal.app.model.Evaluacion;
+import com.bienestaranimal.app.model.EvaluacionRollup;
+import com.bienestaranimal.app.model.Granularidad;
+import com.bienestaranimal.app.repository.EvaluacionRepository;
+import com.bienestaranimal.app.repository.EvaluacionRollupRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Mantiene los agregados por animal e intervalo que alimentan la gráfica de
+ * evolución. Una evaluación nueva se suma a sus tres intervalos; al editar o
+ * borrar se recalculan solo los intervalos afectados a partir de las
+ * puntuaciones ya persistidas (nunca de las respuestas).
+ */
+@Service
+@RequiredArgsConstructor
+public class EvaluacionRollupService {
+
+    private final EvaluacionRollupRepository rollupRepository;
+    private final EvaluacionRepository evaluacionRepository;
+
+    public void registrar(Evaluacion e) {
+        if (e.getAnimal() == null || e.getFechaHora() == null) {
+            return;
+        }
+        Long animalId = e.getAnimal().getId();
+        LocalDate fecha = e.getFechaHora().toLocalDate();
+        for (Granularidad g : Granularidad.values()) {
+            // El delta de esta evaluación se suma en la base de datos (insert ... on duplicate key update)
+            EvaluacionRollup delta = nuevo(animalId, g, g.inicio(fecha));
+            acumular(delta, e.getPuntuacionGlobal(), e.getPuntuacionMental(), e.getPuntuacionNutricion(),
+                    e.getPuntuacionAlojamiento(), e.getPuntuacionSalud(), e.getPuntuacionComportamiento());
+            rollupRepository.sumar(delta);
+        }
+    }
+
+    public void recalcular(Long animalId, LocalDateTime fechaHora) {
+        if (animalId == null || fechaHora == null) {
+            return;
+        }
+        LocalDate fecha = fechaHora.toLocalDate();
+        for (Granularidad g : Granularidad.values()) {
+            LocalDate inicio = g.inicio(fecha);
+            List<EvaluacionPuntuaciones> filas = evaluacionRepository
+                    .findByAnimalIdAndFechaHoraGreaterThanEqualAndFechaHoraLessThan(animalId,
+                            inicio.atStartOfDay(), g.fin(inicio).atStartOfDay());
+            var existente = rollupRepository.findByAnimalIdAndGranularidadAndInicio(animalId, g, inicio);
+
+            if (filas.isEmpty()) {
+                existente.ifPresent(rollupRepository::delete);
+                continue;
+            }
+            EvaluacionRollup r = nuevo(animalId, g, inicio);
+            existente.ifPresent(anterior -> r.setId(anterior.getId()));
+            filas.forEach(f -> acumular(r, f));
+            rollupRepository.save(r);
+        }
+    }
+
+    /** Reconstruye todos los intervalos de un animal desde cero. */
+    public void reconstruir(Long animalId) {
+        rollupRepository.deleteByAnimalId(animalId);
+
+        Map<Granularidad, Map<LocalDate, EvaluacionRollup>> porIntervalo = new EnumMap<>(Granularidad.class);
+        for (EvaluacionPuntuaciones f : evaluacionRepository.findPuntuacionesByAnimalId(animalId)) {
+            if (f.getFechaHora() == null) {
+                continue;
+            }
+            for (Granularidad g : Granularidad.values()) {
+                LocalDate inicio = g.inicio(f.getFechaHora().toLocalDate());
+                EvaluacionRollup r = porIntervalo.computeIfAbsent(g, k -> new TreeMap<>())
+                        .computeIfAbsent(inicio, k -> nuevo(animalId, g, inicio));
+                acumular(r, f);
+            }
+        }
+        porIntervalo.values().forEach(m -> rollupRepository.saveAll(m.values()));
+    }
+
+    public void eliminarAnimal(Long animalId) {
+        rollupRepository.deleteByAnimalId(animalId);
+    }
+
+    public List<SeriePuntoDTO> getSerie(Long animalId, Granularidad granularidad) {
+        return rollupRepository.findByAnimalIdAndGranularidadOrderByInicioAsc(animalId, granularidad).stream()
+                .map(r -> SeriePuntoDTO.builder()
+                        .inicio(r.getInicio().toString())
+                        .cantidad(r.getCantidad())
+                        .mediaGlobal(media(r.getSumaGlobal(), r.getCuentaGlobal()))
+                        .minGlobal(r.getMinGlobal())
+                        .maxGlobal(r.getMaxGlobal())
+                        .mediaMental(media(r.getSumaMental(), r.getCuentaMental()))
+                        .mediaNutricion(media(r.getSumaNutricion(), r.getCuentaNutricion()))
+                        .mediaAlojamiento(media(r.getSumaAlojamiento(), r.getCuentaAlojamiento()))
+                        .mediaSalud(media(r.getSumaSalud(), r.getCuentaSalud()))
+                        .mediaComportamiento(media(r.getSumaComportamiento(), r.getCuentaComportamiento()))
+                        .build())
+                .toList();
+    }
+
+    private static EvaluacionRollup nuevo(Long animalId, Granularidad g, LocalDate inicio) {
+        return EvaluacionRollup.builder()
+                .animalId(animalId)
+                .granularidad(g)
+                .inicio(inicio)
+                .build();
+    }
+
+    private static void acumular(EvaluacionRollup r, EvaluacionPuntuaciones f) {
+        acumular(r, f.getPuntuacionGlobal(), f.getPuntuacionMental(), f.getPuntuacionNutricion(),
+                f.getPuntuacionAlojamiento(), f.getPuntuacionSalud(), f.getPuntuacionComportamiento());
+    }
+
+    private static void acumular(EvaluacionRollup r, Integer global, Integer mental, Integer nutricion,
+            Integer alojamiento, Integer salud, Integer comportamiento) {
+        r.setCantidad(r.getCantidad() + 1);
+        if (global != null) {
+            r.setCuentaGlobal(r.getCuentaGlobal() + 1);
+            r.setSumaGlobal(r.getSumaGlobal() + global);
+            r.setMinGlobal(r.getMinGlobal() == null ? global : Math.min(r.getMinGlobal(), global));
+            r.setMaxGlobal(r.getMaxGlobal() == null ? global : Math.max(r.getMaxGlobal(), global));
+        }
+        if (mental != null) {
+            r.setCuentaMental(r.getCuentaMental() + 1);
+            r.setSumaMental(r.getSumaMental() + mental);
+        }
+        if (nutricion != null) {
+            r.setCuentaNutricion(r.getCuentaNutricion() + 1);
+            r.setSumaNutricion(r.getSumaNutricion() + nutricion);
+        }
+        if (alojamiento != null) {
+            r.setCuentaAlojamiento(r.getCuentaAlojamiento() + 1);
+            r.setSumaAlojamiento(r.getSumaAlojamiento() + alojamiento);
+        }
+        if (salud != null) {
+            r.setCuentaSalud(r.getCuentaSalud() + 1);
+            r.setSumaSalud(r.getSumaSalud() + salud);
+        }
+        if (comportamiento != null) {
+            r.setCuentaComportamiento(r.getCuentaComportamiento() + 1);
+            r.setSumaComportamiento(r.getSumaComportamiento() + comportamiento);
+        }
+    }
+
+    private static Double media(long suma, int cuenta) {
+        return cuenta > 0 ? (double) suma / cuenta : null;
+    }
+}
@@ -1,24 +1,90 @@
 package com.bienestaranimal.app.service;
 
+import com.bienestaranimal.app.config.Escrituras;
+import com.bienestaranimal.app.dto.CursorPage;
+import com.bienestaranimal.app.dto.EvaluacionResumenDTO;
+import com.bienestaranimal.app.dto.RadarDTO;
 import com.bienestaranimal.app.model.Evaluacion;
+import com.bienestaranimal.app.model.TipoEntidad;
+import com.bienestaranimal.app.repository.AlertaRepository;
 import com.bienestaranimal.app.repository.EvaluacionRepository;
+import com.bienestaranimal.app.repository.RespuestaPreguntaRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.Base64;
 import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 public class EvaluacionService {
 
+    private static final int MAX_PAGE_SIZE = 200;
+
     private final EvaluacionRepository evaluacionRepository;
+    private final RespuestaPreguntaRepository respuestaPreguntaRepository;
+    private final AlertaRepository alertaRepository;
+    private final PuntuacionCalculator puntuacionCalculator;
+    private final EvaluacionRollupService rollupService;
+    private final TombstoneService tombstoneService;
+    private final DashboardService dashboardService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public List<Evaluacion> findAll() {
         return evaluacionRepository.findAll();
     }
 
+    public List<EvaluacionResumenDTO> findAllResumen() {
+        return evaluacionRepository.findAllResumen();
+    }
+
+    public CursorPage<EvaluacionResumenDTO> findResumen(String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // Pedimos uno más para saber si hay página siguiente sin hacer un COUNT
+        Limit limit = Limit.of(pageSize + 1);
+
+        List<EvaluacionResumenDTO> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = evaluacionRepository.findResumenFirstPage(limit);
+        } else {
+            String[] parts = decodeCursor(cursor);
+            rows = evaluacionRepository.findResumenAfter(LocalDateTime.parse(parts[0]), Long.valueOf(parts[1]),
+                    limit);
+        }
+
+        if (rows.size() <= pageSize) {
+            return new CursorPage<>(rows, null);
+        }
+        List<EvaluacionResumenDTO> items = rows.subList(0, pageSize);
+        EvaluacionResumenDTO last = items.get(pageSize - 1);
+        if (last.getFechaHora() == null) {
+            // Registros antiguos sin fecha quedan al final: no hay clave con la que continuar
+            return new CursorPage<>(items, null);
+        }
+        return new CursorPage<>(items, encodeCursor(last.getFechaHora(), last.getId()));
+    }
+
     public List<Evaluacion> findByAnimal(Long animalId) {
-        return evaluacionRepository.findByAnimalIdOrderByFechaHoraDesc(animalId);
+        return evaluacionRepository.findHistorialByAnimalId(animalId);
+    }
+
+    public RadarDTO getRadar(Long animalId, Long evaluacionId) {
+        Long id = evaluacionId;
+        if (id == null) {
+            List<Long> ultima = evaluacionRepository.findUltimaIdByAnimalId(animalId, Limit.of(1));
+            if (ultima.isEmpty()) {
+                return new RadarDTO(null, List.of());
+            }
+            id = ultima.get(0);
+        }
+        return new RadarDTO(id, respuestaPreguntaRepository.findPuntuacionPorCategoria(animalId, id));
     }
 
     public Evaluacion findById(Long id) {
@@ -26,6 +92,12 @@ public class EvaluacionService {
                 .orElseThrow(() -> new RuntimeException("Evaluación no encontrada"));
     }
 
+    public Evaluacion findDetalleById(Long id) {
+        return evaluacionRepository.findDetalleById(id)
+                .orElseThrow(() -> new RuntimeException("Evaluación no encontrada"));
+    }
+
+    @Transactional(timeout = Escrituras.TIMEOUT_S)
     public Evaluacion save(Evaluacion evaluacion) {
         if (evaluacion.getFechaHora() == null) {
             evaluacion.setFechaHora(LocalDateTime.now());
@@ -33,10 +105,75 @@ public class EvaluacionService {
         if (evaluacion.getRespuestasDetalladas() != null) {
             evaluacion.getRespuestasDetalladas().forEach(r -> r.setEvaluacion(evaluacion));
         }
-        return evaluacionRepository.save(evaluacion);
+        puntuacionCalculator.calcular(evaluacion);
+        // Se limpia cuando el motor de alertas la evalúa, aunque sea tras un reinicio
+        evaluacion.setAlertasPendientes(true);
+
+        // En una edición hay que sacar la evaluación de los intervalos donde estaba antes
+        Long animalAnterior = null;
+        LocalDateTime fechaAnterior = null;
+        boolean existente = false;
+        if (evaluacion.getId() != null) {
+            Evaluacion anterior = evaluacionRepository.findById(evaluacion.getId()).orElse(null);
+            if (anterior != null) {
+                existente = true;
+                animalAnterior = anterior.getAnimal() != null ? anterior.getAnimal().getId() : null;
+                fechaAnterior = anterior.getFechaHora();
+            }
+        }
+
+        if (existente) {
+            // Las respuestas cuelgan de una colección inversa: editar solo un comentario
+            // no ensucia la evaluación y el ETag no cambiaría. Se fuerza la marca de tiempo
+            evaluacion.setUpdatedAt(LocalDateTime.now());
+        }
+
+        Evaluacion guardada = evaluacionRepository.save(evaluacion);
+        Long animalId = guardada.getAnimal() != null ? guardada.getAnimal().getId() : null;
+        if (existente) {
+            rollupService.recalcular(animalAnterior, fechaAnterior);
+            rollupService.recalcular(animalId, guardada.getFechaHora());
+        } else {
+            rollupService.registrar(guardada);
+        }
+        dashboardService.invalidar(animalAnterior);
+        dashboardService.invalidar(animalId);
+        // Las alertas se evalúan en segundo plano tras el commit
+        eventPublisher.publishEvent(new EvaluacionGuardadaEvent(guardada.getId(), animalId));
+        return guardada;
     }
 
+    @Transactional(timeout = Escrituras.TIMEOUT_S)
     public void deleteById(Long id) {
-        evaluacionRepository.deleteById(id);
+        evaluacionRepository.findById(id).ifPresent(e -> {
+            Long animalId = e.getAnimal() != null ? e.getAnimal().getId() : null;
+            LocalDateTime fechaHora = e.getFechaHora();
+            // Las alertas guardan el id de la evaluación sin clave ajena: se borran a mano
+            alertaRepository.deleteByEvaluacionId(id);
+            evaluacionRepository.delete(e);
+            rollupService.recalcular(animalId, fechaHora);
+            tombstoneService.registrar(TipoEntidad.EVALUACION, List.of(id));
+            dashboardService.invalidar(animalId);
+        });
+    }
+
+    private String encodeCursor(String fechaHora, Long id) {
+        String raw = fechaHora + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException();
+            }
+            LocalDateTime.parse(parts[0]);
+            Long.valueOf(parts[1]);
+            return parts;
+        } catch (IllegalArgumentException | java.time.format.DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor de paginación no válido");
+        }
     }
 }
@@ -1,35 +1,237 @@
 package com.bienestaranimal.app.service;
 
+import com.bienestaranimal.app.model.Archivo;
+import com.bienestaranimal.app.repository.ArchivoRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.UUID;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
+/**
+ * Almacén direccionado por contenido: el SHA-256 se calcula mientras se copia
+ * la subida a un temporal y el fichero acaba en uploads/ab/cd/{hash}{ext}.
+ * Los duplicados no ocupan disco y ningún directorio crece sin límite. Los
+ * ficheros antiguos (UUID_nombre en la raíz de uploads) se siguen sirviendo.
+ * Las imágenes tienen además variantes reducidas junto al original
+ * ({hash}-w{ancho}.jpg|png) que genera ImagenDerivadaService en segundo plano.
+ */
 @Service
 public class FileStorageService {
 
-    private final String uploadDir = "uploads";
+    private static final String URL_BASE = "/api/files/download/";
+    private static final Pattern NOMBRE_HASH = Pattern.compile("([0-9a-f]{64})(\\.[a-z0-9]{1,10})?");
+    // Anchos de las variantes: miniatura para listados y tamaño web para fichas
+    public static final List<Integer> ANCHOS_VARIANTES = List.of(320, 1024);
+    private static final Pattern EXTENSION = Pattern.compile("\\.[a-z0-9]{1,10}");
 
-    public FileStorageService() {
+    private final Path uploadDir = Paths.get("uploads").toAbsolutePath().normalize();
+    private final Path tmpDir = uploadDir.resolve("tmp");
+    private final ArchivoRepository archivoRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    // MIME y nombre de descarga por nombre servido: salen de la tabla archivos (guardados al
+    // subir) o se averiguan una sola vez para los ficheros antiguos, nunca en cada descarga
+    private final Cache<String, Metadatos> metadatosPorNombre = Caffeine.newBuilder().maximumSize(10_000).build();
+
+    public FileStorageService(ArchivoRepository archivoRepository, ApplicationEventPublisher eventPublisher) {
+        this.archivoRepository = archivoRepository;
+        this.eventPublisher = eventPublisher;
         try {
-            Files.createDirectories(Paths.get(uploadDir));
+            Files.createDirectories(tmpDir);
         } catch (IOException e) {
             throw new RuntimeException("No se pudo crear el directorio de subida.");
         }
     }
 
     public String storeFile(MultipartFile file) {
+        Path temporal = null;
         try {
-            String fileName = UUID.randomUUID().toString() + "_" + file.getOriginalFilename();
-            Path targetLocation = Paths.get(uploadDir).resolve(fileName);
-            Files.copy(file.getInputStream(), targetLocation);
-            return "/api/files/download/" + fileName;
-        } catch (IOException ex) {
+            temporal = Files.createTempFile(tmpDir, "subida-", ".part");
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            long tamano;
+            try (InputStream in = new DigestInputStream(file.getInputStream(), sha256)) {
+                tamano = Files.copy(in, temporal, StandardCopyOption.REPLACE_EXISTING);
+            }
+            String hash = HexFormat.of().formatHex(sha256.digest());
+
+            Optional<Archivo> existente = archivoRepository.findById(hash);
+            if (existente.isPresent() && Files.exists(rutaDe(hash, existente.get().getExtension()))) {
+                return urlDe(existente.get());
+            }
+
+            String extension = existente.map(Archivo::getExtension).orElse(extensionDe(file.getOriginalFilename()));
+            Path destino = rutaDe(hash, extension);
+            Files.createDirectories(destino.getParent());
+            Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            temporal = null;
+
+            String mimeType = mimeDe(destino, file.getContentType());
+            Archivo archivo = existente.orElseGet(() -> Archivo.builder()
+                    .hash(hash)
+                    .extension(extension)
+                    .mimeType(mimeType)
+                    .tamano(tamano)
+                    .nombreOriginal(file.getOriginalFilename())
+                    .creadoEn(LocalDateTime.now())
+                    .build());
+            if (existente.isEmpty()) {
+                try {
+                    archivoRepository.save(archivo);
+                } catch (DataIntegrityViolationException e) {
+                    // Otra subida simultánea del mismo contenido ya registró el hash
+                }
+            }
+            if (mimeType.startsWith("image/")) {
+                eventPublisher.publishEvent(new ArchivoSubidoEvent(hash, extension, mimeType));
+            }
+            return urlDe(archivo);
+        } catch (IOException | NoSuchAlgorithmException ex) {
             throw new RuntimeException("Error al guardar el archivo.", ex);
+        } finally {
+            if (temporal != null) {
+                try {
+                    Files.deleteIfExists(temporal);
+                } catch (IOException ignored) {
+                    // El temporal se puede borrar a mano; no afecta a la subida
+                }
+            }
+        }
+    }
+
+    /**
+     * Ruta en disco para un nombre de la URL de descarga, o null si queda fuera
+     * del directorio de subidas.
+     */
+    public Path resolver(String nombre) {
+        return resolver(nombre, null);
+    }
+
+    /**
+     * Como {@link #resolver(String)}, pero si se pide un ancho devuelve la
+     * variante más pequeña que lo cubre. Si aún no se ha generado, o el
+     * ancho supera a todas, se sirve el original.
+     */
+    public Path resolver(String nombre, Integer ancho) {
+        Matcher m = NOMBRE_HASH.matcher(nombre);
+        if (!m.matches()) {
+            Path ruta = uploadDir.resolve(nombre).normalize();
+            return ruta.startsWith(uploadDir) ? ruta : null;
         }
+        if (ancho != null) {
+            for (int anchoVariante : ANCHOS_VARIANTES) {
+                if (anchoVariante >= ancho) {
+                    Path variante = rutaVariante(m.group(1), m.group(2), anchoVariante);
+                    if (Files.exists(variante)) {
+                        return variante;
+                    }
+                }
+            }
+        }
+        return rutaDe(m.group(1), m.group(2));
+    }
+
+    /**
+     * Datos para servir una descarga, o null si el fichero no existe. Los
+     * nombres no cambian nunca de contenido (hash o prefijo UUID), así que
+     * se sirven como inmutables; la excepción es una petición ?w= que aún
+     * recibe el original porque la variante no se ha generado todavía.
+     */
+    public ArchivoDescarga describir(String nombre, Integer ancho) throws IOException {
+        Path ruta = resolver(nombre, ancho);
+        if (ruta == null || !Files.isRegularFile(ruta)) {
+            return null;
+        }
+        long tamano = Files.size(ruta);
+        String servido = ruta.getFileName().toString();
+        Matcher m = NOMBRE_HASH.matcher(nombre);
+        if (!m.matches()) {
+            Metadatos meta = metadatosPorNombre.get(servido, k -> new Metadatos(mimeDe(ruta, null), servido));
+            String etag = "\"" + Integer.toHexString(servido.hashCode()) + "-" + Long.toHexString(tamano) + "\"";
+            return new ArchivoDescarga(ruta, meta.mimeType(), meta.nombre(), tamano, etag, true);
+        }
+        boolean esOriginal = ruta.equals(rutaDe(m.group(1), m.group(2)));
+        // El original se descarga con el nombre con el que se subió; las variantes con el suyo en disco
+        Metadatos meta = metadatosPorNombre.get(servido, k -> esOriginal
+                ? archivoRepository.findById(m.group(1))
+                        .map(a -> new Metadatos(a.getMimeType(),
+                                a.getNombreOriginal() != null ? a.getNombreOriginal() : servido))
+                        .orElseGet(() -> new Metadatos(mimeDe(ruta, null), servido))
+                : new Metadatos(mimeDe(ruta, null), servido));
+        boolean variantePendiente = esOriginal && ancho != null
+                && ancho <= ANCHOS_VARIANTES.get(ANCHOS_VARIANTES.size() - 1);
+        // El nombre servido ya identifica el contenido: hash del original o hash más ancho de la variante
+        return new ArchivoDescarga(ruta, meta.mimeType(), meta.nombre(), tamano, "\"" + servido + "\"",
+                !variantePendiente);
+    }
+
+    public Path rutaOriginal(String hash, String extension) {
+        return rutaDe(hash, extension);
+    }
+
+    // Las variantes con transparencia posible se guardan en PNG; el resto en JPEG
+    public Path rutaVariante(String hash, String extension, int ancho) {
+        String formato = ".png".equals(extension) || ".gif".equals(extension) ? ".png" : ".jpg";
+        return rutaDe(hash, null).resolveSibling(hash + "-w" + ancho + formato);
+    }
+
+    // Reparto en dos niveles por los primeros caracteres del hash: 65.536 directorios hoja
+    private Path rutaDe(String hash, String extension) {
+        return uploadDir.resolve(hash.substring(0, 2))
+                .resolve(hash.substring(2, 4))
+                .resolve(hash + (extension != null ? extension : ""));
+    }
+
+    private String urlDe(Archivo archivo) {
+        return URL_BASE + archivo.getHash() + (archivo.getExtension() != null ? archivo.getExtension() : "");
+    }
+
+    private static String extensionDe(String nombreOriginal) {
+        if (nombreOriginal == null) {
+            return null;
+        }
+        int punto = nombreOriginal.lastIndexOf('.');
+        if (punto < 0) {
+            return null;
+        }
+        String extension = nombreOriginal.substring(punto).toLowerCase(Locale.ROOT);
+        return EXTENSION.matcher(extension).matches() ? extension : null;
+    }
+
+    private static String mimeDe(Path ruta, String declarado) {
+        // Algunos sistemas no reconocen .pdf o lo asocian a otro tipo
+        if (ruta.toString().toLowerCase(Locale.ROOT).endsWith(".pdf")) {
+            return "application/pdf";
+        }
+        String mime;
+        try {
+            mime = Files.probeContentType(ruta);
+        } catch (IOException e) {
+            mime = null;
+        }
+        if (mime == null) {
+            mime = declarado;
+        }
+        return mime != null ? mime : "application/octet-stream";
+    }
+
+    private record Metadatos(String mimeType, String nombre) {
     }
 }
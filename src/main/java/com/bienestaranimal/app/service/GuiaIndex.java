@@ -0,0 +1,254 @@
+package com.bienestaranimal.app.service;
+
+import com.bienestaranimal.app.dto.GuiaDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UriUtils;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Índice en memoria de las guías PDF. Se construye una vez y un WatchService
+ * sobre la carpeta lo rehace cuando se añade, cambia o borra un fichero; el
+ * listado se sirve ya serializado junto con su versión (hash del contenido).
+ * Los PDF sin cambios (mismo tamaño y fecha) no se vuelven a leer.
+ */
+@Component
+public class GuiaIndex {
+
+    private static final String URL_BASE = "/api/guias/file/";
+    // Espera tras el primer evento para agrupar una copia de varios ficheros en una sola reconstrucción
+    private static final long AGRUPAR_MS = 500;
+
+    // Nodo raíz del árbol de páginas: el /Count mayor es el total del documento
+    private static final Pattern PAGES_COUNT = Pattern.compile(
+            "/Type\\s*/Pages\\b[^>]*?/Count\\s+(\\d+)|/Count\\s+(\\d+)[^>]*?/Type\\s*/Pages\\b");
+    private static final Pattern PAGE = Pattern.compile("/Type\\s*/Page\\b(?!s)");
+
+    private final JsonMapper jsonMapper;
+    // Carpeta donde están los PDFs reales
+    private final Path directorio;
+
+    private volatile Snapshot snapshot;
+    private WatchService watchService;
+    // Solo las toca el hilo del vigilante (y vigilar() antes de arrancarlo)
+    private WatchKey claveGuias;
+    private WatchKey clavePadre;
+
+    @Autowired
+    public GuiaIndex(JsonMapper jsonMapper) {
+        this(jsonMapper, Paths.get("Guias animales"));
+    }
+
+    GuiaIndex(JsonMapper jsonMapper, Path directorio) {
+        this.jsonMapper = jsonMapper;
+        this.directorio = directorio;
+    }
+
+    @PostConstruct
+    void vigilar() {
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            registrar();
+        } catch (IOException e) {
+            System.out.println("GuiaIndex: no se puede vigilar la carpeta de guías: " + e.getMessage());
+            return;
+        }
+        Thread hilo = new Thread(this::bucle, "guias-watcher");
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+
+    // Vigila la carpeta de guías si existe; si no (o si se borra), su carpeta padre, para
+    // empezar a vigilarla en cuanto se cree en lugar de quedarse con el listado vacío
+    private void registrar() throws IOException {
+        if (Files.isDirectory(directorio)) {
+            claveGuias = directorio.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+            if (clavePadre != null) {
+                clavePadre.cancel();
+                clavePadre = null;
+            }
+        } else if (clavePadre == null) {
+            System.out.println("GuiaIndex: no existe la carpeta " + directorio.toAbsolutePath()
+                    + ", se indexará cuando se cree");
+            claveGuias = null;
+            clavePadre = directorio.toAbsolutePath().getParent().register(watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE);
+        }
+    }
+
+    @PreDestroy
+    void detener() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+
+    /**
+     * JSON del listado, listo para escribir en la respuesta, y su versión (cambia
+     * si cambia cualquier guía). Salen de la misma instantánea, así que una
+     * reconstrucción entre medias no puede emparejar un ETag con otro cuerpo.
+     */
+    public Listado getListado() {
+        return current().listado();
+    }
+
+    public List<GuiaDTO> getGuias() {
+        return current().guias();
+    }
+
+    public synchronized void reconstruir() {
+        Snapshot anterior = snapshot;
+        Map<String, Entrada> entradas = new HashMap<>();
+        if (Files.isDirectory(directorio)) {
+            try (Stream<Path> stream = Files.list(directorio)) {
+                for (Path file : (Iterable<Path>) stream::iterator) {
+                    String fileName = file.getFileName().toString();
+                    if (!fileName.toLowerCase(Locale.ROOT).endsWith(".pdf")) {
+                        continue;
+                    }
+                    BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+                    if (!attrs.isRegularFile()) {
+                        continue;
+                    }
+                    long modificado = attrs.lastModifiedTime().toMillis();
+                    Entrada previa = anterior != null ? anterior.entradas().get(fileName) : null;
+                    if (previa != null && previa.tamano() == attrs.size() && previa.modificado() == modificado) {
+                        entradas.put(fileName, previa);
+                        continue;
+                    }
+                    GuiaDTO guia = new GuiaDTO(beautifyTitle(fileName),
+                            URL_BASE + UriUtils.encodePathSegment(fileName, StandardCharsets.UTF_8),
+                            attrs.size(), contarPaginas(file), attrs.lastModifiedTime().toInstant().toString());
+                    entradas.put(fileName, new Entrada(attrs.size(), modificado, guia));
+                }
+            } catch (IOException e) {
+                System.out.println("GuiaIndex: error al leer la carpeta de guías: " + e.getMessage());
+                if (anterior != null) {
+                    return;
+                }
+            }
+        }
+
+        List<GuiaDTO> guias = entradas.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey(Comparator.naturalOrder()))
+                .map(e -> e.getValue().guia())
+                .toList();
+        byte[] json = jsonMapper.writeValueAsBytes(guias);
+        snapshot = new Snapshot(Map.copyOf(entradas), guias, new Listado(json, sha256(json)));
+    }
+
+    private void bucle() {
+        reconstruir();
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                key.pollEvents();
+                key.reset();
+                // Drenar los eventos que llegan mientras se copia el fichero
+                WatchKey siguiente;
+                while ((siguiente = watchService.poll(AGRUPAR_MS, TimeUnit.MILLISECONDS)) != null) {
+                    siguiente.pollEvents();
+                    siguiente.reset();
+                }
+                // La carpeta acaba de crearse o se ha borrado: cambiar lo que se vigila
+                if (claveGuias == null || !claveGuias.isValid()) {
+                    try {
+                        registrar();
+                    } catch (IOException e) {
+                        System.out.println("GuiaIndex: no se puede vigilar la carpeta de guías: " + e.getMessage());
+                    }
+                }
+                reconstruir();
+                System.out.println("GuiaIndex: índice de guías actualizado (" + getGuias().size() + " guías)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // Parada de la aplicación
+        }
+    }
+
+    private Snapshot current() {
+        Snapshot s = snapshot;
+        if (s == null) {
+            reconstruir();
+            s = snapshot;
+        }
+        return s;
+    }
+
+    // Sin librería PDF: se busca el /Count del árbol de páginas y, si está dentro de
+    // un flujo comprimido, se cuentan los objetos /Type /Page visibles
+    static Integer contarPaginas(Path pdf) {
+        String contenido;
+        try {
+            contenido = new String(Files.readAllBytes(pdf), StandardCharsets.ISO_8859_1);
+        } catch (IOException e) {
+            return null;
+        }
+        int max = 0;
+        Matcher m = PAGES_COUNT.matcher(contenido);
+        while (m.find()) {
+            String valor = m.group(1) != null ? m.group(1) : m.group(2);
+            max = Math.max(max, Integer.parseInt(valor));
+        }
+        if (max == 0) {
+            Matcher paginas = PAGE.matcher(contenido);
+            while (paginas.find()) {
+                max++;
+            }
+        }
+        return max > 0 ? max : null;
+    }
+
+    static String beautifyTitle(String fileName) {
+        String title = fileName.replace(".pdf", "");
+        title = title.replace("_", " ").replace("-", " ");
+        title = title.replaceAll("\\s[a-f0-9]{10}$", "");
+        return title.trim();
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Entrada(long tamano, long modificado, GuiaDTO guia) {
+    }
+
+    private record Snapshot(Map<String, Entrada> entradas, List<GuiaDTO> guias, Listado listado) {
+    }
+
+    public record Listado(byte[] json, String version) {
+    }
+}
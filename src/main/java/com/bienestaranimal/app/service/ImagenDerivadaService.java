@@ -0,0 +1,229 @@
+package com.bienestaranimal.app.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+
+/**
+ * Genera en segundo plano las variantes reducidas de cada imagen subida, para
+ * que los listados no descarguen la foto original del móvil (varios MB).
+ */
+@Service
+@RequiredArgsConstructor
+public class ImagenDerivadaService {
+
+    private static final float CALIDAD_JPEG = 0.85f;
+
+    private final FileStorageService fileStorageService;
+
+    @Async("imagenesExecutor")
+    @EventListener
+    public void onArchivoSubido(ArchivoSubidoEvent event) {
+        try {
+            generar(event.hash(), event.extension());
+        } catch (IOException | RuntimeException e) {
+            System.out.println("ImagenDerivadaService: no se pudieron generar variantes de " + event.hash()
+                    + ": " + e.getMessage());
+        }
+    }
+
+    void generar(String hash, String extension) throws IOException {
+        Path original = fileStorageService.rutaOriginal(hash, extension);
+        BufferedImage imagen = leer(original);
+        if (imagen == null) {
+            return;
+        }
+        // ImageIO ignora la orientación EXIF: las fotos de móvil suelen venir giradas con esa marca
+        imagen = orientar(imagen, leerOrientacion(original));
+        for (int ancho : FileStorageService.ANCHOS_VARIANTES) {
+            // Nunca se amplía: si el original ya es más pequeño se sirve tal cual
+            if (ancho >= imagen.getWidth()) {
+                continue;
+            }
+            Path destino = fileStorageService.rutaVariante(hash, extension, ancho);
+            if (Files.exists(destino)) {
+                continue;
+            }
+            boolean png = destino.getFileName().toString().endsWith(".png");
+            BufferedImage variante = escalar(imagen, ancho, png);
+            Path temporal = Files.createTempFile(destino.getParent(), hash, ".part");
+            try {
+                escribir(variante, temporal, png);
+                // El movimiento atómico evita servir una variante a medio escribir
+                Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temporal);
+            }
+        }
+    }
+
+    // Decodifica con submuestreo para no tener en memoria la foto completa
+    // cuando basta con algo más del doble de la variante mayor
+    private static BufferedImage leer(Path original) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(original.toFile())) {
+            if (in == null) {
+                return null;
+            }
+            Iterator<ImageReader> lectores = ImageIO.getImageReaders(in);
+            if (!lectores.hasNext()) {
+                return null;
+            }
+            ImageReader lector = lectores.next();
+            try {
+                lector.setInput(in, true, true);
+                int anchoMaximo = FileStorageService.ANCHOS_VARIANTES.get(FileStorageService.ANCHOS_VARIANTES.size() - 1);
+                int paso = Math.max(1, lector.getWidth(0) / (2 * anchoMaximo));
+                ImageReadParam param = lector.getDefaultReadParam();
+                param.setSourceSubsampling(paso, paso, 0, 0);
+                return lector.read(0, param);
+            } finally {
+                lector.dispose();
+            }
+        }
+    }
+
+    /**
+     * Valor de la etiqueta EXIF Orientation (1-8) de un JPEG, o 1 si no la
+     * tiene. Solo recorre las cabeceras hasta el inicio de los datos de imagen.
+     */
+    static int leerOrientacion(Path ruta) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(ruta)))) {
+            if (in.readUnsignedShort() != 0xFFD8) {
+                return 1;
+            }
+            while (true) {
+                int marcador = in.readUnsignedShort();
+                // Fin de las cabeceras (SOS) o flujo que no es un segmento: no hay EXIF
+                if ((marcador & 0xFF00) != 0xFF00 || marcador == 0xFFDA || marcador == 0xFFD9) {
+                    return 1;
+                }
+                int longitud = in.readUnsignedShort() - 2;
+                if (marcador == 0xFFE1) {
+                    int orientacion = orientacionExif(in.readNBytes(longitud));
+                    if (orientacion > 0) {
+                        return orientacion;
+                    }
+                } else {
+                    in.skipNBytes(longitud);
+                }
+            }
+        } catch (IOException e) {
+            // Incluye EOFException: fichero truncado o sin segmentos tras la cabecera
+            return 1;
+        }
+    }
+
+    // Segmento APP1: "Exif\0\0" + cabecera TIFF; la orientación es la etiqueta 0x0112 del IFD0
+    private static int orientacionExif(byte[] segmento) {
+        if (segmento.length < 14
+                || !"Exif\0\0".equals(new String(segmento, 0, 6, StandardCharsets.ISO_8859_1))) {
+            return 0;
+        }
+        try {
+            ByteBuffer tiff = ByteBuffer.wrap(segmento, 6, segmento.length - 6).slice();
+            tiff.order(segmento[6] == 'I' ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN);
+            int ifd = tiff.getInt(4);
+            int entradas = tiff.getShort(ifd) & 0xFFFF;
+            for (int i = 0; i < entradas; i++) {
+                int entrada = ifd + 2 + i * 12;
+                if ((tiff.getShort(entrada) & 0xFFFF) == 0x0112) {
+                    int valor = tiff.getShort(entrada + 8) & 0xFFFF;
+                    return valor >= 1 && valor <= 8 ? valor : 0;
+                }
+            }
+        } catch (IndexOutOfBoundsException | BufferUnderflowException e) {
+            // EXIF truncado o corrupto: se trata como sin orientación
+        }
+        return 0;
+    }
+
+    // Aplica el giro o volteo que indica la orientación EXIF (2-8); con 5-8 se intercambian ancho y alto
+    static BufferedImage orientar(BufferedImage origen, int orientacion) {
+        if (orientacion < 2 || orientacion > 8) {
+            return origen;
+        }
+        int w = origen.getWidth();
+        int h = origen.getHeight();
+        boolean traspuesta = orientacion >= 5;
+        int tipo = origen.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        BufferedImage destino = new BufferedImage(traspuesta ? h : w, traspuesta ? w : h, tipo);
+        for (int y = 0; y < destino.getHeight(); y++) {
+            for (int x = 0; x < destino.getWidth(); x++) {
+                int rgb = switch (orientacion) {
+                    case 2 -> origen.getRGB(w - 1 - x, y);
+                    case 3 -> origen.getRGB(w - 1 - x, h - 1 - y);
+                    case 4 -> origen.getRGB(x, h - 1 - y);
+                    case 5 -> origen.getRGB(y, x);
+                    case 6 -> origen.getRGB(y, h - 1 - x);
+                    case 7 -> origen.getRGB(w - 1 - y, h - 1 - x);
+                    default -> origen.getRGB(w - 1 - y, x);
+                };
+                destino.setRGB(x, y, rgb);
+            }
+        }
+        return destino;
+    }
+
+    // Reducciones sucesivas a la mitad: una sola pasada bilineal desde una foto
+    // grande pierde detalle y produce dientes de sierra
+    static BufferedImage escalar(BufferedImage origen, int ancho, boolean conAlfa) {
+        int alto = Math.max(1, (int) Math.round((double) origen.getHeight() * ancho / origen.getWidth()));
+        int tipo = conAlfa ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        BufferedImage actual = origen;
+        int w = origen.getWidth();
+        int h = origen.getHeight();
+        do {
+            w = Math.max(ancho, w / 2);
+            h = Math.max(alto, h / 2);
+            BufferedImage siguiente = new BufferedImage(w, h, tipo);
+            Graphics2D g = siguiente.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(actual, 0, 0, w, h, null);
+            g.dispose();
+            actual = siguiente;
+        } while (w != ancho || h != alto);
+        return actual;
+    }
+
+    private static void escribir(BufferedImage imagen, Path destino, boolean png) throws IOException {
+        if (png) {
+            ImageIO.write(imagen, "png", destino.toFile());
+            return;
+        }
+        ImageWriter escritor = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(destino.toFile())) {
+            escritor.setOutput(out);
+            ImageWriteParam param = escritor.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(CALIDAD_JPEG);
+            escritor.write(null, new IIOImage(imagen, null, null), param);
+        } finally {
+            escritor.dispose();
+        }
+    }
+}
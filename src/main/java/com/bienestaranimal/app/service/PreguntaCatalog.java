@@ -0,0 +1,103 @@
+package com.bienestaranimal.app.service;
+
+import com.bienestaranimal.app.model.PreguntaEvaluacion;
+import com.bienestaranimal.app.repository.PreguntaRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Catálogo inmutable en memoria del cuestionario. Las preguntas solo cambian
+ * cuando se siembran, así que se cargan una vez (tras el DataLoader) y se
+ * sirven ya serializadas junto con su versión (hash del contenido).
+ */
+@Component
+@RequiredArgsConstructor
+public class PreguntaCatalog {
+
+    private final PreguntaRepository preguntaRepository;
+    private final JsonMapper jsonMapper;
+
+    private volatile Snapshot snapshot;
+
+    // La invoca el DataLoader cuando termina de sembrar
+    public void reload() {
+        List<PreguntaEvaluacion> preguntas = preguntaRepository.findAll();
+
+        Map<Long, String> categorias = new HashMap<>();
+        Map<Long, Map<String, Integer>> puntos = new HashMap<>();
+        for (PreguntaEvaluacion p : preguntas) {
+            categorias.put(p.getId(), p.getCategoria());
+            Map<String, Integer> tabla = new LinkedHashMap<>();
+            putIfNotNull(tabla, "A", p.getPuntosA());
+            putIfNotNull(tabla, "B", p.getPuntosB());
+            putIfNotNull(tabla, "C", p.getPuntosC());
+            putIfNotNull(tabla, "D", p.getPuntosD());
+            putIfNotNull(tabla, "E", p.getPuntosE());
+            puntos.put(p.getId(), Collections.unmodifiableMap(tabla));
+        }
+
+        byte[] json = jsonMapper.writeValueAsBytes(preguntas);
+        snapshot = new Snapshot(Collections.unmodifiableMap(categorias), Collections.unmodifiableMap(puntos),
+                json, sha256(json));
+    }
+
+    public String getCategoria(Long preguntaId) {
+        return current().categorias().get(preguntaId);
+    }
+
+    public Integer getPuntos(Long preguntaId, String seleccion) {
+        Map<String, Integer> tabla = current().puntos().get(preguntaId);
+        return tabla != null ? tabla.get(seleccion) : null;
+    }
+
+    /** JSON del cuestionario completo, listo para escribir en la respuesta. */
+    public byte[] getJson() {
+        return current().json();
+    }
+
+    /** Versión del contenido; cambia si cambia cualquier pregunta. */
+    public String getVersion() {
+        return current().version();
+    }
+
+    private Snapshot current() {
+        Snapshot s = snapshot;
+        if (s == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    reload();
+                }
+                s = snapshot;
+            }
+        }
+        return s;
+    }
+
+    private static void putIfNotNull(Map<String, Integer> tabla, String opcion, Integer valor) {
+        if (valor != null) {
+            tabla.put(opcion, valor);
+        }
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Snapshot(Map<Long, String> categorias, Map<Long, Map<String, Integer>> puntos,
+            byte[] json, String version) {
+    }
+}
@@ -0,0 +1,80 @@
+package com.bienestaranimal.app.service;
+
+import com.bienestaranimal.app.model.Evaluacion;
+import com.bienestaranimal.app.model.RespuestaPregunta;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Calcula las subpuntuaciones por categoría de una evaluación (media de los
+ * puntos 0-100 de sus respuestas) para guardarlas junto a la evaluación.
+ */
+@Component
+@RequiredArgsConstructor
+public class PuntuacionCalculator {
+
+    public static final String ESTADO_MENTAL = "ESTADO MENTAL";
+    public static final String NUTRICION = "NUTRICIÓN";
+    public static final String ALOJAMIENTO = "ALOJAMIENTO";
+    public static final String SALUD = "SALUD";
+    public static final String COMPORTAMIENTO = "COMPORTAMIENTO";
+
+    private final PreguntaCatalog preguntaCatalog;
+
+    public void calcular(Evaluacion evaluacion) {
+        List<RespuestaPregunta> respuestas = evaluacion.getRespuestasDetalladas();
+        if (respuestas == null || respuestas.isEmpty()) {
+            aplicar(evaluacion, Map.of());
+            return;
+        }
+
+        // El cliente solo envía el id de la pregunta: la categoría sale del catálogo en memoria
+        Map<String, double[]> acumulado = new HashMap<>();
+        for (RespuestaPregunta r : respuestas) {
+            if (r.getPregunta() == null || r.getPuntos() == null) {
+                continue;
+            }
+            String categoria = preguntaCatalog.getCategoria(r.getPregunta().getId());
+            if (categoria == null) {
+                continue;
+            }
+            double[] sumaYCuenta = acumulado.computeIfAbsent(normalizar(categoria), k -> new double[2]);
+            sumaYCuenta[0] += r.getPuntos();
+            sumaYCuenta[1]++;
+        }
+
+        Map<String, Double> medias = new HashMap<>();
+        acumulado.forEach((categoria, sc) -> medias.put(categoria, sc[0] / sc[1]));
+        aplicar(evaluacion, medias);
+    }
+
+    /**
+     * Asigna las subpuntuaciones a partir de las medias por categoría. Las
+     * categorías sin respuestas quedan a null, salvo el estado mental, que
+     * vale 0 como hacía el cálculo original del dashboard.
+     */
+    public void aplicar(Evaluacion evaluacion, Map<String, Double> mediasPorCategoria) {
+        Map<String, Double> medias = new HashMap<>();
+        mediasPorCategoria.forEach((categoria, media) -> medias.put(normalizar(categoria), media));
+
+        Integer mental = redondear(medias.get(ESTADO_MENTAL));
+        evaluacion.setPuntuacionMental(mental != null ? mental : 0);
+        evaluacion.setPuntuacionNutricion(redondear(medias.get(NUTRICION)));
+        evaluacion.setPuntuacionAlojamiento(redondear(medias.get(ALOJAMIENTO)));
+        evaluacion.setPuntuacionSalud(redondear(medias.get(SALUD)));
+        evaluacion.setPuntuacionComportamiento(redondear(medias.get(COMPORTAMIENTO)));
+    }
+
+    private static String normalizar(String categoria) {
+        return categoria.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private static Integer redondear(Double media) {
+        return media != null ? (int) Math.round(media) : null;
+    }
+}
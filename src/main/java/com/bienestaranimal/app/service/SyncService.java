@@ -0,0 +1,145 @@
+package com.bienestaranimal.app.service;
+
+import com.bienestaranimal.app.config.Escrituras;
+import com.bienestaranimal.app.dto.SyncResponseDTO;
+import com.bienestaranimal.app.dto.SyncSubidaResultadoDTO;
+import com.bienestaranimal.app.model.Evaluacion;
+import com.bienestaranimal.app.model.TipoEntidad;
+import com.bienestaranimal.app.model.Tombstone;
+import com.bienestaranimal.app.repository.AnimalRepository;
+import com.bienestaranimal.app.repository.EvaluacionRepository;
+import com.bienestaranimal.app.repository.PreguntaRepository;
+import com.bienestaranimal.app.repository.TombstoneRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Sincronización incremental para la PWA: devuelve solo lo que ha cambiado
+ * desde el token del cliente y acepta lotes de evaluaciones creadas offline.
+ */
+@Service
+public class SyncService {
+
+    // Margen para no perder filas de transacciones que confirmaron después de leer: tiene que
+    // superar Escrituras.TIMEOUT_S. El cliente aplica los cambios por id, así que repetir
+    // alguna fila no tiene efecto
+    private static final Duration MARGEN = Duration.ofSeconds(Escrituras.TIMEOUT_S + 5);
+
+    // Tamaño máximo de un lote offline, para que quepa holgadamente en el tiempo anterior
+    public static final int MAX_LOTE = 100;
+
+    private final AnimalRepository animalRepository;
+    private final EvaluacionRepository evaluacionRepository;
+    private final PreguntaRepository preguntaRepository;
+    private final TombstoneRepository tombstoneRepository;
+    private final EvaluacionService evaluacionService;
+    private final AnimalService animalService;
+    private final TransactionTemplate escritura;
+
+    public SyncService(AnimalRepository animalRepository, EvaluacionRepository evaluacionRepository,
+            PreguntaRepository preguntaRepository, TombstoneRepository tombstoneRepository,
+            EvaluacionService evaluacionService, AnimalService animalService,
+            PlatformTransactionManager transactionManager) {
+        this.animalRepository = animalRepository;
+        this.evaluacionRepository = evaluacionRepository;
+        this.preguntaRepository = preguntaRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.evaluacionService = evaluacionService;
+        this.animalService = animalService;
+        this.escritura = new TransactionTemplate(transactionManager);
+        this.escritura.setTimeout(Escrituras.TIMEOUT_S);
+    }
+
+    @Transactional(readOnly = true)
+    public SyncResponseDTO getCambios(String token) {
+        LocalDateTime ahora = LocalDateTime.now();
+        Map<TipoEntidad, List<Long>> eliminados = new EnumMap<>(TipoEntidad.class);
+
+        if (token == null || token.isBlank()) {
+            return new SyncResponseDTO(ahora.toString(), true, animalRepository.findAll(),
+                    evaluacionService.findAllResumen(), preguntaRepository.findAll(), eliminados);
+        }
+
+        LocalDateTime desde = parseToken(token).minus(MARGEN);
+        for (Tombstone t : tombstoneRepository.findByDeletedAtAfter(desde)) {
+            eliminados.computeIfAbsent(t.getTipo(), k -> new ArrayList<>()).add(t.getEntidadId());
+        }
+        return new SyncResponseDTO(ahora.toString(), false, animalRepository.findByUpdatedAtAfter(desde),
+                evaluacionRepository.findResumenUpdatedAfter(desde), preguntaRepository.findByUpdatedAtAfter(desde),
+                eliminados);
+    }
+
+    /**
+     * Guarda en una sola transacción las evaluaciones encoladas offline. Las que
+     * traen un clientId ya registrado no se vuelven a crear: se devuelve el id
+     * existente, de modo que reintentar la subida es seguro. Los ids que envíe el
+     * cliente se ignoran: cada subida crea filas nuevas. Los lotes de más de
+     * MAX_LOTE evaluaciones se rechazan con 413 para que el cliente los trocee.
+     */
+    public List<SyncSubidaResultadoDTO> subirEvaluaciones(List<Evaluacion> evaluaciones) {
+        if (evaluaciones.size() > MAX_LOTE) {
+            throw new ResponseStatusException(HttpStatus.CONTENT_TOO_LARGE,
+                    "Lote demasiado grande: máximo " + MAX_LOTE + " evaluaciones por envío");
+        }
+        try {
+            return escritura.execute(status -> guardarLote(evaluaciones));
+        } catch (DataIntegrityViolationException e) {
+            if (evaluaciones.stream().allMatch(ev -> ev.getClientId() == null)) {
+                throw e;
+            }
+            // Otra subida con el mismo clientId confirmó entre la búsqueda y el INSERT: al
+            // repetir el lote esas evaluaciones ya se encuentran y se devuelven como existentes
+            System.out.println("SyncService: clientId duplicado en una subida concurrente, se repite el lote");
+            return escritura.execute(status -> guardarLote(evaluaciones));
+        }
+    }
+
+    private List<SyncSubidaResultadoDTO> guardarLote(List<Evaluacion> evaluaciones) {
+        List<SyncSubidaResultadoDTO> resultados = new ArrayList<>(evaluaciones.size());
+        for (Evaluacion e : evaluaciones) {
+            Optional<Long> existente = e.getClientId() != null
+                    ? evaluacionRepository.findIdByClientId(e.getClientId())
+                    : Optional.empty();
+            if (existente.isPresent()) {
+                resultados.add(new SyncSubidaResultadoDTO(e.getClientId(), existente.get(), true));
+                continue;
+            }
+            // Una subida offline siempre crea: un id enviado por el cliente no puede pisar
+            // una evaluación (ni respuestas) de otro. También limpia lo que dejó un intento anterior
+            e.setId(null);
+            if (e.getRespuestasDetalladas() != null) {
+                e.getRespuestasDetalladas().forEach(r -> r.setId(null));
+            }
+            if (e.getAnimal() != null && e.getAnimal().getId() != null) {
+                e.setAnimal(animalService.findById(e.getAnimal().getId()));
+            }
+            Evaluacion guardada = evaluacionService.save(e);
+            resultados.add(new SyncSubidaResultadoDTO(e.getClientId(), guardada.getId(), false));
+        }
+        // Los INSERT se lanzan aquí para que un clientId duplicado salga como excepción traducida
+        evaluacionRepository.flush();
+        return resultados;
+    }
+
+    private LocalDateTime parseToken(String token) {
+        try {
+            return LocalDateTime.parse(token);
+        } catch (DateTimeParseException e) {
+            throw new RuntimeException("Token de sincronización no válido");
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.bienestaranimal.app.service;
+
+import com.bienestaranimal.app.model.TipoEntidad;
+import com.bienestaranimal.app.model.Tombstone;
+import com.bienestaranimal.app.repository.TombstoneRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+@Service
+@RequiredArgsConstructor
+public class TombstoneService {
+
+    private final TombstoneRepository tombstoneRepository;
+
+    public void registrar(TipoEntidad tipo, Collection<Long> ids) {
+        LocalDateTime ahora = LocalDateTime.now();
+        tombstoneRepository.saveAll(ids.stream()
+                .map(id -> Tombstone.builder().tipo(tipo).entidadId(id).deletedAt(ahora).build())
+                .toList());
+    }
+
+    public void registrarEvaluacionesDeAnimal(Long animalId) {
+        tombstoneRepository.insertEvaluacionesDeAnimal(animalId, LocalDateTime.now());
+    }
+}
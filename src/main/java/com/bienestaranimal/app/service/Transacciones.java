@@ -0,0 +1,29 @@
+package com.bienestaranimal.app.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Utilidades para que las estructuras en memoria (dashboard, índice de
+ * búsqueda) solo reflejen cambios confirmados en la base de datos.
+ */
+public final class Transacciones {
+
+    private Transacciones() {
+    }
+
+    // Ejecuta la acción tras el commit de la transacción actual, o ya si no hay ninguna.
+    // Si la transacción se deshace la acción no se ejecuta
+    public static void despuesDelCommit(Runnable accion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    accion.run();
+                }
+            });
+        } else {
+            accion.run();
+        }
+    }
+}
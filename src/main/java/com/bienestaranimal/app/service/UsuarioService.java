@@ -4,9 +4,16 @@ import com.bienestaranimal.app.model.Role;
 import com.bienestaranimal.app.model.Usuario;
 import com.bienestaranimal.app.repository.UsuarioRepository;
 import com.bienestaranimal.app.security.JwtUtils;
+import com.bienestaranimal.app.security.LoginRateLimiter;
+import com.bienestaranimal.app.security.TokenRevocationList;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
@@ -22,6 +29,8 @@ public class UsuarioService {
     private final PasswordEncoder passwordEncoder;
     private final JwtUtils jwtUtils;
     private final AuthenticationManager authenticationManager;
+    private final TokenRevocationList revocationList;
+    private final LoginRateLimiter loginRateLimiter;
 
     public Map<String, String> register(Usuario usuario) {
         if (usuarioRepository.existsByEmail(usuario.getEmail())) {
@@ -34,30 +43,85 @@ public class UsuarioService {
         }
         usuarioRepository.save(usuario);
 
-        String token = jwtUtils.generateToken(usuario);
-        Map<String, String> response = new HashMap<>();
-        response.put("token", token);
-        response.put("role", usuario.getRole().name());
-        return response;
+        return tokens(usuario);
     }
 
-    public Map<String, String> login(String email, String password) {
-        authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(email, password));
+    public Map<String, String> login(String email, String password, String ip) {
+        // Antes de calcular ningún hash: los intentos que superan el límite se rechazan con 429
+        loginRateLimiter.comprobar(ip, email);
+        try {
+            authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(email, password));
+        } catch (AuthenticationException e) {
+            loginRateLimiter.registrarFallo(email);
+            throw e;
+        }
+        loginRateLimiter.registrarExito(email);
         Usuario usuario = usuarioRepository.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
 
-        String token = jwtUtils.generateToken(usuario);
+        return tokens(usuario);
+    }
+
+    // Rotación: el token de refresco usado queda revocado y se emite un par nuevo
+    public Map<String, String> refresh(String refreshToken) {
+        Claims claims = validarRefresh(refreshToken);
+        // Solo gana una rotación por token: una reutilización (o dos refrescos simultáneos) se rechaza
+        if (!revocationList.revocar(claims.getId(), claims.getExpiration())) {
+            throw new BadCredentialsException("Token de refresco ya utilizado");
+        }
+        Usuario usuario = usuarioRepository.findByEmail(claims.getSubject())
+                .orElseThrow(() -> new BadCredentialsException("Usuario no encontrado"));
+        return tokens(usuario);
+    }
+
+    public void logout(String accessToken, String refreshToken) {
+        revocarSiValido(accessToken);
+        revocarSiValido(refreshToken);
+    }
+
+    private Claims validarRefresh(String refreshToken) {
+        Claims claims;
+        try {
+            claims = jwtUtils.validar(refreshToken);
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new BadCredentialsException("Token de refresco no válido");
+        }
+        if (!JwtUtils.isRefresh(claims) || revocationList.isRevocado(claims.getId())) {
+            throw new BadCredentialsException("Token de refresco no válido");
+        }
+        return claims;
+    }
+
+    private void revocarSiValido(String token) {
+        if (token == null || token.isBlank()) {
+            return;
+        }
+        try {
+            Claims claims = jwtUtils.validar(token);
+            // Los tokens emitidos antes de añadir el jti no se pueden revocar: siguen
+            // valiendo hasta que caducan (como mucho jwt.expiration desde su emisión)
+            revocationList.revocar(claims.getId(), claims.getExpiration());
+        } catch (JwtException | IllegalArgumentException e) {
+            // Un token inválido o caducado ya no da acceso: no hay nada que revocar
+        }
+    }
+
+    private Map<String, String> tokens(Usuario usuario) {
         Map<String, String> response = new HashMap<>();
-        response.put("token", token);
+        response.put("token", jwtUtils.generateToken(usuario));
+        response.put("refreshToken", jwtUtils.generateRefreshToken(usuario));
         response.put("role", usuario.getRole().name());
         return response;
     }
 
     public Map<String, String> getCurrentUser() {
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        Usuario usuario = usuarioRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        // El filtro JWT ya deja el usuario como principal: no hace falta volver a la base de datos
+        Usuario usuario = auth.getPrincipal() instanceof Usuario u
+                ? u
+                : usuarioRepository.findByEmail(auth.getName())
+                        .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
 
         Map<String, String> response = new HashMap<>();
         response.put("email", usuario.getEmail());
@@ -0,0 +1,41 @@
+package com.bienestaranimal.app.service;
+
+import com.bienestaranimal.app.dto.VersionDTO;
+import com.bienestaranimal.app.repository.AnimalRepository;
+import com.bienestaranimal.app.repository.EvaluacionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+// ETags fuertes calculados a partir de updatedAt, sin cargar ni serializar las entidades.
+// Devuelve null cuando el recurso no existe para que el controlador siga el camino normal (404).
+@Service
+@RequiredArgsConstructor
+public class VersionService {
+
+    private final AnimalRepository animalRepository;
+    private final EvaluacionRepository evaluacionRepository;
+
+    public String animales() {
+        return animalRepository.findVersion().etag("animales");
+    }
+
+    public String animal(Long id) {
+        return etagSiExiste(animalRepository.findVersionById(id), "animal-" + id);
+    }
+
+    public String evaluaciones() {
+        return evaluacionRepository.findVersion().etag("evaluaciones");
+    }
+
+    public String evaluacionesDeAnimal(Long animalId) {
+        return evaluacionRepository.findVersionByAnimalId(animalId).etag("evaluaciones-animal-" + animalId);
+    }
+
+    public String evaluacion(Long id) {
+        return etagSiExiste(evaluacionRepository.findVersionById(id), "evaluacion-" + id);
+    }
+
+    private String etagSiExiste(VersionDTO version, String prefijo) {
+        return version.existe() ? version.etag(prefijo) : null;
+    }
+}
@@ -0,0 +1,47 @@
+package com.bienestaranimal.app.controller;
+
+import com.bienestaranimal.app.service.AnimalService;
+import com.bienestaranimal.app.service.EvaluacionExportService;
+import com.bienestaranimal.app.service.EvaluacionRollupService;
+import com.bienestaranimal.app.service.EvaluacionService;
+import com.bienestaranimal.app.service.VersionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class EvaluacionControllerTest {
+
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	void setUp() {
+		EvaluacionController controller = new EvaluacionController(mock(EvaluacionService.class),
+				mock(AnimalService.class), mock(EvaluacionRollupService.class), mock(EvaluacionExportService.class),
+				mock(VersionService.class));
+		mockMvc = MockMvcBuilders.standaloneSetup(controller).setAsyncRequestTimeout(30_000).build();
+	}
+
+	// El timeout global sigue aplicándose; solo la exportación lo quita
+	@Test
+	void onlyExportRunsWithoutAsyncTimeout() throws Exception {
+		MvcResult result = mockMvc.perform(get("/api/evaluaciones/export"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		assertThat(result.getRequest().getAsyncContext().getTimeout()).isEqualTo(-1L);
+	}
+
+	@Test
+	void unknownSeriesBucketIsABadRequest() throws Exception {
+		mockMvc.perform(get("/api/evaluaciones/animal/1/series").param("bucket", "year"))
+				.andExpect(status().isBadRequest());
+	}
+}
@@ -0,0 +1,118 @@
+package com.bienestaranimal.app.controller;
+
+import com.bienestaranimal.app.service.ArchivoDescarga;
+import com.bienestaranimal.app.service.FileStorageService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FileControllerTest {
+
+	@TempDir
+	Path dir;
+
+	private FileController controller;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		Path fichero = dir.resolve("abc.txt");
+		Files.writeString(fichero, "0123456789");
+		FileStorageService storage = mock(FileStorageService.class);
+		when(storage.describir("abc.txt", null))
+				.thenReturn(new ArchivoDescarga(fichero, "text/plain", "Informe año.txt", 10, "\"abc.txt\"", true));
+		controller = new FileController(storage);
+	}
+
+	@Test
+	void servesWholeFileAsImmutable() throws Exception {
+		MockHttpServletResponse response = descargar(new MockHttpServletRequest("GET", "/"));
+
+		assertThat(response.getStatus()).isEqualTo(200);
+		assertThat(response.getContentAsString(StandardCharsets.UTF_8)).isEqualTo("0123456789");
+		assertThat(response.getHeader("Cache-Control")).contains("immutable");
+		assertThat(response.getHeader("ETag")).isEqualTo("\"abc.txt\"");
+		assertThat(response.getHeader("Accept-Ranges")).isEqualTo("bytes");
+	}
+
+	@Test
+	void downloadsWithOriginalFileName() throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		controller.downloadFile("/abc.txt", true, null, new MockHttpServletRequest("GET", "/"), response);
+
+		assertThat(response.getHeader("Content-Disposition"))
+				.isEqualTo("attachment; filename=\"Informe a_o.txt\"; filename*=UTF-8''Informe%20a%C3%B1o.txt");
+	}
+
+	@Test
+	void servesPartialContentForRange() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+		request.addHeader("Range", "bytes=2-4");
+
+		MockHttpServletResponse response = descargar(request);
+
+		assertThat(response.getStatus()).isEqualTo(206);
+		assertThat(response.getHeader("Content-Range")).isEqualTo("bytes 2-4/10");
+		assertThat(response.getContentAsString(StandardCharsets.UTF_8)).isEqualTo("234");
+	}
+
+	@Test
+	void servesSuffixRange() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+		request.addHeader("Range", "bytes=-3");
+
+		MockHttpServletResponse response = descargar(request);
+
+		assertThat(response.getStatus()).isEqualTo(206);
+		assertThat(response.getContentAsString(StandardCharsets.UTF_8)).isEqualTo("789");
+	}
+
+	@Test
+	void rejectsUnsatisfiableRange() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+		request.addHeader("Range", "bytes=20-");
+
+		MockHttpServletResponse response = descargar(request);
+
+		assertThat(response.getStatus()).isEqualTo(416);
+		assertThat(response.getHeader("Content-Range")).isEqualTo("bytes */10");
+	}
+
+	@Test
+	void ignoresRangeWhenIfRangeDoesNotMatch() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+		request.addHeader("Range", "bytes=2-4");
+		request.addHeader("If-Range", "\"otro\"");
+
+		MockHttpServletResponse response = descargar(request);
+
+		assertThat(response.getStatus()).isEqualTo(200);
+		assertThat(response.getContentAsString(StandardCharsets.UTF_8)).isEqualTo("0123456789");
+	}
+
+	@Test
+	void answersNotModifiedForMatchingEtag() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+		request.addHeader("If-None-Match", "\"abc.txt\"");
+
+		MockHttpServletResponse response = descargar(request);
+
+		assertThat(response.getStatus()).isEqualTo(304);
+		assertThat(response.getContentAsByteArray()).isEmpty();
+	}
+
+	private MockHttpServletResponse descargar(MockHttpServletRequest request) throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		controller.downloadFile("/abc.txt", false, null, request, response);
+		return response;
+	}
+}
@@ -0,0 +1,46 @@
+package com.bienestaranimal.app.controller;
+
+import com.bienestaranimal.app.service.SyncService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class SyncControllerTest {
+
+	private final SyncService syncService = mock(SyncService.class);
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	void setUp() {
+		mockMvc = MockMvcBuilders.standaloneSetup(new SyncController(syncService)).build();
+	}
+
+	@Test
+	void rejectsInvalidEvaluationInBatch() throws Exception {
+		mockMvc.perform(post("/api/sync/evaluaciones")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("[{\"clientId\":\"a\",\"nivelConfianza\":3},{\"clientId\":\"b\",\"nivelConfianza\":0}]"))
+				.andExpect(status().isBadRequest());
+
+		verify(syncService, never()).subirEvaluaciones(anyList());
+	}
+
+	@Test
+	void acceptsValidBatch() throws Exception {
+		mockMvc.perform(post("/api/sync/evaluaciones")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("[{\"clientId\":\"a\",\"nivelConfianza\":3}]"))
+				.andExpect(status().isOk());
+
+		verify(syncService).subirEvaluaciones(anyList());
+	}
+}
@@ -0,0 +1,82 @@
+package com.bienestaranimal.app.repository;
+
+import com.bienestaranimal.app.model.PreguntaEvaluacion;
+import com.bienestaranimal.app.model.Role;
+import com.bienestaranimal.app.model.Usuario;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Sin transacción de test: cada llamada al repositorio usa su propio contexto de persistencia,
+// así que solo la caché de segundo nivel puede evitar la ida a la base de datos
+@DataJpaTest
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CacheSegundoNivelTest {
+
+	@Autowired
+	private UsuarioRepository usuarioRepository;
+
+	@Autowired
+	private PreguntaRepository preguntaRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void setUp() {
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+	}
+
+	@AfterEach
+	void tearDown() {
+		usuarioRepository.deleteAll();
+		preguntaRepository.deleteAll();
+	}
+
+	// Usuario queda fuera de la caché de Hibernate: la única caché de usuarios es la del filtro JWT
+	@Test
+	void findByEmailAlwaysReadsTheDatabase() {
+		usuarioRepository.save(Usuario.builder()
+				.email("cache@test.com")
+				.password("secreto")
+				.role(Role.CUIDADOR)
+				.build());
+
+		statistics.clear();
+		for (int i = 0; i < 3; i++) {
+			assertThat(usuarioRepository.findByEmail("cache@test.com")).isPresent();
+		}
+
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+		assertThat(statistics.getQueryCacheHitCount()).isZero();
+	}
+
+	@Test
+	void preguntaByIdSkipsDatabaseOnceCached() {
+		Long id = preguntaRepository.save(PreguntaEvaluacion.builder()
+				.texto("¿Come con normalidad?")
+				.categoria("NUTRICIÓN")
+				.build()).getId();
+
+		statistics.clear();
+		for (int i = 0; i < 10; i++) {
+			assertThat(preguntaRepository.findById(id)).isPresent();
+		}
+
+		assertThat(statistics.getPrepareStatementCount()).isZero();
+		assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(10);
+	}
+}
@@ -0,0 +1,174 @@
+package com.bienestaranimal.app.repository;
+
+import com.bienestaranimal.app.model.Animal;
+import com.bienestaranimal.app.model.Evaluacion;
+import com.bienestaranimal.app.model.PreguntaEvaluacion;
+import com.bienestaranimal.app.model.RespuestaPregunta;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class EvaluacionRepositoryTest {
+
+	@Autowired
+	private EvaluacionRepository evaluacionRepository;
+
+	@Autowired
+	private AnimalRepository animalRepository;
+
+	@Autowired
+	private RespuestaPreguntaRepository respuestaPreguntaRepository;
+
+	@Autowired
+	private TombstoneRepository tombstoneRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Statistics statistics;
+
+	private List<PreguntaEvaluacion> preguntas;
+
+	@BeforeEach
+	void setUp() {
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		preguntas = new ArrayList<>();
+		for (String categoria : List.of("NUTRICIÓN", "SALUD", "ESTADO MENTAL")) {
+			PreguntaEvaluacion p = PreguntaEvaluacion.builder()
+					.texto("Pregunta " + categoria)
+					.categoria(categoria)
+					.build();
+			entityManager.persist(p);
+			preguntas.add(p);
+		}
+	}
+
+	@Test
+	void historialUsesOneStatementRegardlessOfHistorySize() {
+		Animal corto = persistAnimalConHistorial("Corto", 2);
+		Animal largo = persistAnimalConHistorial("Largo", 25);
+
+		assertThat(statementsToLoadHistorial(corto.getId())).isEqualTo(1);
+		assertThat(statementsToLoadHistorial(largo.getId())).isEqualTo(1);
+	}
+
+	@Test
+	void detalleUsesOneStatement() {
+		Animal animal = persistAnimalConHistorial("Detalle", 1);
+		Long id = evaluacionRepository.findHistorialByAnimalId(animal.getId()).get(0).getId();
+		entityManager.clear();
+
+		statistics.clear();
+		Evaluacion e = evaluacionRepository.findDetalleById(id).orElseThrow();
+		e.getAnimal().getNombre();
+		e.getRespuestasDetalladas().forEach(r -> r.getPregunta().getCategoria());
+
+		assertThat(e.getRespuestasDetalladas()).hasSize(preguntas.size());
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void savingAnEvaluationBatchesItsAnswerInserts() {
+		Animal animal = persistAnimalConHistorial("Lotes", 0);
+		Evaluacion e = Evaluacion.builder()
+				.animal(animal)
+				.fechaHora(LocalDateTime.of(2025, 6, 1, 10, 0))
+				.respuestasDetalladas(new ArrayList<>())
+				.build();
+		for (int i = 0; i < 30; i++) {
+			e.getRespuestasDetalladas().add(RespuestaPregunta.builder()
+					.evaluacion(e)
+					.pregunta(preguntas.get(i % preguntas.size()))
+					.seleccion("B")
+					.puntos(50)
+					.build());
+		}
+
+		statistics.clear();
+		evaluacionRepository.save(e);
+		entityManager.flush();
+
+		// Como mucho: una llamada a cada secuencia, el INSERT de la evaluación y el lote de respuestas
+		assertThat(statistics.getEntityInsertCount()).isEqualTo(31);
+		assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(4);
+	}
+
+	@Test
+	void deletingAnAnimalHistoryUsesOneStatementPerTable() {
+		Animal animal = persistAnimalConHistorial("Borrado", 20);
+		Long id = animal.getId();
+		entityManager.clear();
+
+		statistics.clear();
+		assertThat(tombstoneRepository.insertEvaluacionesDeAnimal(id, LocalDateTime.now())).isEqualTo(20);
+		assertThat(respuestaPreguntaRepository.deleteByAnimalId(id)).isEqualTo(20 * preguntas.size());
+		assertThat(evaluacionRepository.deleteByAnimalId(id)).isEqualTo(20);
+		assertThat(animalRepository.bulkDeleteById(id)).isEqualTo(1);
+
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(4);
+		assertThat(statistics.getEntityLoadCount()).isZero();
+		assertThat(evaluacionRepository.findHistorialByAnimalId(id)).isEmpty();
+		assertThat(respuestaPreguntaRepository.count()).isZero();
+	}
+
+	private long statementsToLoadHistorial(Long animalId) {
+		entityManager.clear();
+		statistics.clear();
+
+		List<Evaluacion> historial = evaluacionRepository.findHistorialByAnimalId(animalId);
+		historial.forEach(e -> {
+			e.getAnimal().getNombre();
+			e.getRespuestasDetalladas().forEach(r -> r.getPregunta().getCategoria());
+		});
+
+		assertThat(historial).allSatisfy(e -> assertThat(e.getRespuestasDetalladas()).hasSize(preguntas.size()));
+		return statistics.getPrepareStatementCount();
+	}
+
+	private Animal persistAnimalConHistorial(String nombre, int evaluaciones) {
+		Animal animal = Animal.builder()
+				.nombre(nombre)
+				.especie("Lince Ibérico")
+				.fechaNacimiento(LocalDate.of(2020, 1, 1))
+				.build();
+		entityManager.persist(animal);
+
+		for (int i = 0; i < evaluaciones; i++) {
+			Evaluacion e = Evaluacion.builder()
+					.animal(animal)
+					.fechaHora(LocalDateTime.of(2025, 1, 1, 10, 0).plusDays(i))
+					.puntuacionGlobal(50)
+					.respuestasDetalladas(new ArrayList<>())
+					.build();
+			for (PreguntaEvaluacion p : preguntas) {
+				e.getRespuestasDetalladas().add(RespuestaPregunta.builder()
+						.evaluacion(e)
+						.pregunta(p)
+						.seleccion("A")
+						.puntos(100)
+						.build());
+			}
+			entityManager.persist(e);
+		}
+		entityManager.flush();
+		return animal;
+	}
+}
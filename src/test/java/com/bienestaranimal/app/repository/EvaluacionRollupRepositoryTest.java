@@ -0,0 +1,67 @@
+package com.bienestaranimal.app.repository;
+
+import com.bienestaranimal.app.model.EvaluacionRollup;
+import com.bienestaranimal.app.model.Granularidad;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// El upsert usa "on duplicate key update": se prueba sobre H2 en modo MySQL
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+		"spring.datasource.url=jdbc:h2:mem:rollup;MODE=MySQL;DB_CLOSE_DELAY=-1",
+		"spring.datasource.driver-class-name=org.h2.Driver",
+		"spring.datasource.username=sa",
+		"spring.datasource.password=" })
+class EvaluacionRollupRepositoryTest {
+
+	private static final LocalDate INICIO = LocalDate.of(2026, 3, 2);
+
+	@Autowired
+	private EvaluacionRollupRepository rollupRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Test
+	void createsBucketAndAccumulatesIntoIt() {
+		rollupRepository.sumar(delta(70, 60));
+		rollupRepository.sumar(delta(40, null));
+		rollupRepository.sumar(delta(null, 80));
+		entityManager.clear();
+
+		EvaluacionRollup r = rollupRepository.findByAnimalIdAndGranularidadAndInicio(7L, Granularidad.SEMANA, INICIO)
+				.orElseThrow();
+		assertThat(r.getCantidad()).isEqualTo(3);
+		assertThat(r.getCuentaGlobal()).isEqualTo(2);
+		assertThat(r.getSumaGlobal()).isEqualTo(110);
+		assertThat(r.getMinGlobal()).isEqualTo(40);
+		assertThat(r.getMaxGlobal()).isEqualTo(70);
+		assertThat(r.getCuentaMental()).isEqualTo(2);
+		assertThat(r.getSumaMental()).isEqualTo(140);
+		assertThat(rollupRepository.count()).isEqualTo(1);
+	}
+
+	private static EvaluacionRollup delta(Integer global, Integer mental) {
+		return EvaluacionRollup.builder()
+				.animalId(7L)
+				.granularidad(Granularidad.SEMANA)
+				.inicio(INICIO)
+				.cantidad(1)
+				.cuentaGlobal(global != null ? 1 : 0)
+				.sumaGlobal(global != null ? global : 0)
+				.minGlobal(global)
+				.maxGlobal(global)
+				.cuentaMental(mental != null ? 1 : 0)
+				.sumaMental(mental != null ? mental : 0)
+				.build();
+	}
+}
@@ -0,0 +1,74 @@
+package com.bienestaranimal.app.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BoundedPasswordEncoderTest {
+
+	private final CountDownLatch liberar = new CountDownLatch(1);
+	private final CountDownLatch ocupado = new CountDownLatch(1);
+
+	private ThreadPoolTaskExecutor executor;
+	private BoundedPasswordEncoder encoder;
+
+	@BeforeEach
+	void setUp() {
+		executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(1);
+		executor.setMaxPoolSize(1);
+		executor.setQueueCapacity(0);
+		executor.initialize();
+
+		// Codificador lento controlado por el test: retiene el único hilo hasta que se libera
+		PasswordEncoder lento = new PasswordEncoder() {
+			@Override
+			public String encode(CharSequence raw) {
+				ocupado.countDown();
+				try {
+					liberar.await(5, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return "hash:" + raw;
+			}
+
+			@Override
+			public boolean matches(CharSequence raw, String encoded) {
+				return encoded.equals("hash:" + raw);
+			}
+		};
+		encoder = new BoundedPasswordEncoder(lento, executor);
+	}
+
+	@AfterEach
+	void tearDown() {
+		liberar.countDown();
+		executor.shutdown();
+	}
+
+	@Test
+	void saturatedPoolRejectsImmediatelyWith429() throws Exception {
+		CompletableFuture<String> enCurso = CompletableFuture.supplyAsync(() -> encoder.encode("secreto"));
+		assertThat(ocupado.await(5, TimeUnit.SECONDS)).isTrue();
+
+		assertThatThrownBy(() -> encoder.matches("secreto", "hash:secreto"))
+				.isInstanceOf(DemasiadasPeticionesException.class)
+				.satisfies(e -> assertThat(((DemasiadasPeticionesException) e).getStatusCode())
+						.isEqualTo(HttpStatus.TOO_MANY_REQUESTS));
+
+		liberar.countDown();
+		assertThat(enCurso.get(5, TimeUnit.SECONDS)).isEqualTo("hash:secreto");
+		assertThat(encoder.getMetricas()).containsEntry("operaciones", 1L).containsEntry("rechazadas", 1L);
+	}
+}
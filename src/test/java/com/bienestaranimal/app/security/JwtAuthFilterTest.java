@@ -0,0 +1,123 @@
+package com.bienestaranimal.app.security;
+
+import com.bienestaranimal.app.model.Role;
+import com.bienestaranimal.app.model.Usuario;
+import com.bienestaranimal.app.repository.TokenRevocadoRepository;
+import com.bienestaranimal.app.repository.UsuarioRepository;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JwtAuthFilterTest {
+
+	private static final String SECRET = "5367566B59703373367639792F423F4528482B4D6251655468576D5A71347437";
+
+	private JwtUtils jwtUtils;
+	private UsuarioRepository usuarioRepository;
+	private TokenRevocationList revocationList;
+	private JwtAuthFilter filter;
+
+	private final Usuario usuario = Usuario.builder()
+			.id(7L)
+			.email("cuidador@test.com")
+			.password("hash")
+			.role(Role.CUIDADOR)
+			.build();
+
+	@BeforeEach
+	void setUp() {
+		jwtUtils = jwtUtils(60_000);
+		usuarioRepository = mock(UsuarioRepository.class);
+		when(usuarioRepository.findByEmail(anyString())).thenReturn(Optional.of(usuario));
+		revocationList = new TokenRevocationList(mock(TokenRevocadoRepository.class));
+		filter = new JwtAuthFilter(jwtUtils, new UsuarioCache(usuarioRepository, 100, Duration.ofMinutes(5)),
+				revocationList);
+	}
+
+	@AfterEach
+	void tearDown() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void tokenWithRoleClaimsAuthenticatesWithoutLoadingTheUser() throws Exception {
+		Authentication auth = filtrar(jwtUtils.generateToken(usuario));
+
+		assertThat(auth).isNotNull();
+		Usuario principal = (Usuario) auth.getPrincipal();
+		assertThat(principal.getId()).isEqualTo(7L);
+		assertThat(principal.getEmail()).isEqualTo("cuidador@test.com");
+		assertThat(auth.getAuthorities()).extracting("authority").containsExactly("ROLE_CUIDADOR");
+		verify(usuarioRepository, never()).findByEmail(anyString());
+	}
+
+	@Test
+	void legacyTokenLooksUpTheUserOnceThenUsesTheCache() throws Exception {
+		String token = jwtUtils.generateToken(new HashMap<>(), usuario);
+
+		for (int i = 0; i < 5; i++) {
+			assertThat(filtrar(token)).isNotNull();
+		}
+
+		verify(usuarioRepository, times(1)).findByEmail("cuidador@test.com");
+	}
+
+	@Test
+	void expiredOrForgedTokensLeaveTheRequestUnauthenticated() throws Exception {
+		String caducado = jwtUtils(-1_000).generateToken(usuario);
+		String manipulado = jwtUtils.generateToken(usuario) + "x";
+
+		assertThat(filtrar(caducado)).isNull();
+		assertThat(filtrar(manipulado)).isNull();
+		assertThat(filtrar("no-es-un-jwt")).isNull();
+	}
+
+	@Test
+	void revokedAndRefreshTokensAreRejectedWithoutDatabaseAccess() throws Exception {
+		String token = jwtUtils.generateToken(usuario);
+		Claims claims = jwtUtils.validar(token);
+		revocationList.revocar(claims.getId(), claims.getExpiration());
+
+		assertThat(filtrar(token)).isNull();
+		assertThat(filtrar(jwtUtils.generateRefreshToken(usuario))).isNull();
+		assertThat(filtrar(jwtUtils.generateToken(usuario))).isNotNull();
+		verify(usuarioRepository, never()).findByEmail(anyString());
+	}
+
+	private Authentication filtrar(String token) throws Exception {
+		SecurityContextHolder.clearContext();
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/animales");
+		request.addHeader("Authorization", "Bearer " + token);
+		MockFilterChain chain = new MockFilterChain();
+		filter.doFilter(request, new MockHttpServletResponse(), chain);
+		assertThat(chain.getRequest()).isNotNull();
+		return SecurityContextHolder.getContext().getAuthentication();
+	}
+
+	private static JwtUtils jwtUtils(long expiracion) {
+		JwtUtils utils = new JwtUtils();
+		ReflectionTestUtils.setField(utils, "secretKey", SECRET);
+		ReflectionTestUtils.setField(utils, "jwtExpiration", expiracion);
+		utils.init();
+		return utils;
+	}
+}
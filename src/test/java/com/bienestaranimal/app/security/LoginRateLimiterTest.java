@@ -0,0 +1,75 @@
+package com.bienestaranimal.app.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LoginRateLimiterTest {
+
+	private final AtomicLong nanos = new AtomicLong();
+	private final LoginRateLimiter limiter = new LoginRateLimiter(3, 2, Duration.ofMinutes(1), nanos::get);
+
+	@Test
+	void perIpLimitCountsEveryAttemptAndRejectsWith429() {
+		for (int i = 0; i < 3; i++) {
+			limiter.comprobar("10.0.0.1", "cuidador" + i + "@test.com");
+		}
+
+		assertThatThrownBy(() -> limiter.comprobar("10.0.0.1", "otro@test.com"))
+				.isInstanceOf(DemasiadasPeticionesException.class)
+				.satisfies(e -> {
+					DemasiadasPeticionesException ex = (DemasiadasPeticionesException) e;
+					assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+					assertThat(ex.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("60");
+				});
+		// Otra IP no se ve afectada
+		assertThatCode(() -> limiter.comprobar("10.0.0.2", "otro@test.com")).doesNotThrowAnyException();
+		assertThat(limiter.getBloqueados()).isEqualTo(1);
+	}
+
+	@Test
+	void perEmailLimitOnlyCountsFailures() {
+		limiter.comprobar("10.0.0.1", "ana@test.com");
+		limiter.registrarFallo("ana@test.com");
+		limiter.comprobar("10.0.0.2", "ana@test.com");
+		limiter.registrarFallo(" ANA@test.com ");
+
+		// El email bloqueado se rechaza desde cualquier IP y sin distinguir mayúsculas
+		assertThatThrownBy(() -> limiter.comprobar("10.0.0.3", "Ana@Test.com"))
+				.isInstanceOf(DemasiadasPeticionesException.class);
+		assertThatCode(() -> limiter.comprobar("10.0.0.3", "luis@test.com")).doesNotThrowAnyException();
+	}
+
+	@Test
+	void successfulLoginResetsEmailFailures() {
+		limiter.registrarFallo("ana@test.com");
+		limiter.registrarExito("ana@test.com");
+		limiter.registrarFallo("ana@test.com");
+
+		assertThatCode(() -> limiter.comprobar("10.0.0.1", "ana@test.com")).doesNotThrowAnyException();
+	}
+
+	@Test
+	void countersExpireAfterTheWindow() {
+		for (int i = 0; i < 3; i++) {
+			limiter.comprobar("10.0.0.1", null);
+		}
+		limiter.registrarFallo("ana@test.com");
+		limiter.registrarFallo("ana@test.com");
+		assertThatThrownBy(() -> limiter.comprobar("10.0.0.1", null))
+				.isInstanceOf(DemasiadasPeticionesException.class);
+		assertThatThrownBy(() -> limiter.comprobar("10.0.0.2", "ana@test.com"))
+				.isInstanceOf(DemasiadasPeticionesException.class);
+
+		nanos.addAndGet(Duration.ofMinutes(1).plusSeconds(1).toNanos());
+
+		assertThatCode(() -> limiter.comprobar("10.0.0.1", "ana@test.com")).doesNotThrowAnyException();
+	}
+}
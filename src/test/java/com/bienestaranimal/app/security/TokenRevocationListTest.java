@@ -0,0 +1,55 @@
+package com.bienestaranimal.app.security;
+
+import com.bienestaranimal.app.repository.TokenRevocadoRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class TokenRevocationListTest {
+
+	private final TokenRevocationList lista = new TokenRevocationList(mock(TokenRevocadoRepository.class));
+
+	@Test
+	void onlyOneConcurrentRevocationWins() throws Exception {
+		Date expira = new Date(System.currentTimeMillis() + 60_000);
+		int hilos = 8;
+		CountDownLatch salida = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(hilos);
+		try {
+			List<Future<Boolean>> resultados = new ArrayList<>();
+			for (int i = 0; i < hilos; i++) {
+				Callable<Boolean> tarea = () -> {
+					salida.await();
+					return lista.revocar("jti-1", expira);
+				};
+				resultados.add(pool.submit(tarea));
+			}
+			salida.countDown();
+
+			int ganadores = 0;
+			for (Future<Boolean> r : resultados) {
+				ganadores += r.get() ? 1 : 0;
+			}
+			assertThat(ganadores).isEqualTo(1);
+			assertThat(lista.isRevocado("jti-1")).isTrue();
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	@Test
+	void expiredTokensAreNotRevoked() {
+		assertThat(lista.revocar("jti-2", new Date(System.currentTimeMillis() - 1000))).isFalse();
+		assertThat(lista.isRevocado("jti-2")).isFalse();
+	}
+}
@@ -0,0 +1,211 @@
+package com.bienestaranimal.app.service;
+
+import com.bienestaranimal.app.dto.AlertaPendiente;
+import com.bienestaranimal.app.dto.EvaluacionPuntuaciones;
+import com.bienestaranimal.app.model.Alerta;
+import com.bienestaranimal.app.model.TipoAlerta;
+import com.bienestaranimal.app.repository.AlertaRepository;
+import com.bienestaranimal.app.repository.EvaluacionRepository;
+import com.bienestaranimal.app.repository.RespuestaPreguntaRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AlertaServiceTest {
+
+	private final AlertaRepository alertaRepository = mock(AlertaRepository.class);
+	private final EvaluacionRepository evaluacionRepository = mock(EvaluacionRepository.class);
+	private final RespuestaPreguntaRepository respuestaRepository = mock(RespuestaPreguntaRepository.class);
+	private ThreadPoolTaskExecutor executor;
+	private AlertaService service;
+
+	@BeforeEach
+	void setUp() {
+		executor = pool(2, 500);
+		service = crear(executor);
+	}
+
+	@AfterEach
+	void tearDown() {
+		executor.shutdown();
+	}
+
+	@Test
+	void raisesGlobalAndMentalAlertsBelowThresholds() {
+		puntuaciones(10L, 45, 35);
+
+		service.evaluar(10L, 1L);
+
+		assertThat(tipos()).containsExactlyInAnyOrder(TipoAlerta.GLOBAL_BAJO, TipoAlerta.MENTAL_BAJO);
+		verify(alertaRepository).deleteByEvaluacionId(10L);
+		verify(evaluacionRepository).marcarAlertasRevisadas(10L);
+	}
+
+	@Test
+	void raisesNoAlertForHealthyEvaluation() {
+		puntuaciones(10L, 80, 75);
+
+		service.evaluar(10L, 1L);
+
+		assertThat(tipos()).isEmpty();
+	}
+
+	@Test
+	void raisesMentalDropAgainstRecentAverage() {
+		EvaluacionPuntuaciones actual = puntuaciones(10L, 70, 50);
+		List<EvaluacionPuntuaciones> historial = List.of(actual, fila(9L, 80), fila(8L, 80));
+		when(evaluacionRepository.findPuntuacionesByAnimalIdOrderByFechaHoraDescIdDesc(eq(1L), any(Limit.class)))
+				.thenReturn(historial);
+
+		service.evaluar(10L, 1L);
+
+		assertThat(tipos()).containsExactly(TipoAlerta.CAIDA_MENTAL);
+	}
+
+	@Test
+	void raisesCriticalHealthAlertForAnswerC() {
+		puntuaciones(10L, 80, 75);
+		when(respuestaRepository.countBySeleccionEnCategorias(eq(10L), eq("C"), anyCollection())).thenReturn(2L);
+
+		service.evaluar(10L, 1L);
+
+		assertThat(tipos()).containsExactly(TipoAlerta.SALUD_CRITICA);
+	}
+
+	// El guardado solo encola: con el pool bloqueado se publican las 200 sin que se
+	// evalúe ninguna, y después todas se evalúan en hilos del pool, nunca en el llamante
+	@Test
+	void submissionDoesNotWaitForAlertEvaluation() throws Exception {
+		CountDownLatch liberar = new CountDownLatch(1);
+		CountDownLatch procesadas = new CountDownLatch(200);
+		Set<String> hilos = ConcurrentHashMap.newKeySet();
+		when(evaluacionRepository.findPuntuacionesById(anyLong())).thenAnswer(inv -> {
+			hilos.add(Thread.currentThread().getName());
+			liberar.await(5, TimeUnit.SECONDS);
+			procesadas.countDown();
+			return Optional.empty();
+		});
+
+		for (long i = 1; i <= 200; i++) {
+			service.onEvaluacionGuardada(new EvaluacionGuardadaEvent(i, 1L));
+		}
+		assertThat(procesadas.getCount()).isEqualTo(200);
+
+		liberar.countDown();
+		assertThat(procesadas.await(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(hilos).allMatch(h -> h.startsWith("alertas-"))
+				.doesNotContain(Thread.currentThread().getName());
+	}
+
+	// Lo rechazado no se guarda en memoria: sigue marcado en la base de datos y el
+	// reintento lo recupera de allí en cuanto la cola del pool se vacía
+	@Test
+	void recoversRejectedEvaluationsFromTheDatabase() throws Exception {
+		ThreadPoolTaskExecutor lleno = pool(1, 1);
+		try {
+			AlertaService saturado = crear(lleno);
+			CountDownLatch bloqueo = new CountDownLatch(1);
+			Set<Long> procesadas = ConcurrentHashMap.newKeySet();
+			when(evaluacionRepository.findPuntuacionesById(anyLong())).thenAnswer(inv -> {
+				bloqueo.await(5, TimeUnit.SECONDS);
+				procesadas.add(inv.getArgument(0));
+				return Optional.empty();
+			});
+			List<AlertaPendiente> marcadas = List.of(pendiente(3L), pendiente(4L), pendiente(5L));
+			when(evaluacionRepository.findAlertasPendientes(any(Limit.class))).thenReturn(marcadas);
+
+			for (long i = 1; i <= 5; i++) {
+				saturado.onEvaluacionGuardada(new EvaluacionGuardadaEvent(i, 1L));
+			}
+			// Con la cola ocupada el reintento ni siquiera consulta
+			saturado.reintentarPendientes();
+			verify(evaluacionRepository, never()).findAlertasPendientes(any(Limit.class));
+
+			bloqueo.countDown();
+			long limite = System.currentTimeMillis() + 5000;
+			while (procesadas.size() < 5 && System.currentTimeMillis() < limite) {
+				saturado.reintentarPendientes();
+				Thread.sleep(10);
+			}
+			assertThat(procesadas).containsExactlyInAnyOrder(1L, 2L, 3L, 4L, 5L);
+			verify(evaluacionRepository).marcarAlertasRevisadas(5L);
+		} finally {
+			lleno.shutdown();
+		}
+	}
+
+	private AlertaService crear(ThreadPoolTaskExecutor pool) {
+		AlertaService alertas = new AlertaService(alertaRepository, evaluacionRepository, respuestaRepository, pool,
+				new TransactionTemplate(mock(PlatformTransactionManager.class)));
+		ReflectionTestUtils.setField(alertas, "globalMinimo", 50);
+		ReflectionTestUtils.setField(alertas, "mentalMinimo", 40);
+		ReflectionTestUtils.setField(alertas, "caidaMental", 25);
+		ReflectionTestUtils.setField(alertas, "historial", 5);
+		ReflectionTestUtils.setField(alertas, "categoriasCriticas", List.of("SALUD"));
+		return alertas;
+	}
+
+	private static ThreadPoolTaskExecutor pool(int hilos, int cola) {
+		ThreadPoolTaskExecutor pool = new ThreadPoolTaskExecutor();
+		pool.setCorePoolSize(hilos);
+		pool.setMaxPoolSize(hilos);
+		pool.setQueueCapacity(cola);
+		pool.setThreadNamePrefix("alertas-");
+		pool.initialize();
+		return pool;
+	}
+
+	private EvaluacionPuntuaciones puntuaciones(Long id, Integer global, Integer mental) {
+		EvaluacionPuntuaciones p = fila(id, mental);
+		when(p.getPuntuacionGlobal()).thenReturn(global);
+		when(evaluacionRepository.findPuntuacionesById(id)).thenReturn(Optional.of(p));
+		return p;
+	}
+
+	private static AlertaPendiente pendiente(Long id) {
+		AlertaPendiente p = mock(AlertaPendiente.class);
+		when(p.getId()).thenReturn(id);
+		when(p.getAnimalId()).thenReturn(1L);
+		return p;
+	}
+
+	private static EvaluacionPuntuaciones fila(Long id, Integer mental) {
+		EvaluacionPuntuaciones p = mock(EvaluacionPuntuaciones.class);
+		when(p.getId()).thenReturn(id);
+		when(p.getPuntuacionMental()).thenReturn(mental);
+		return p;
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<TipoAlerta> tipos() {
+		ArgumentCaptor<List<Alerta>> captor = ArgumentCaptor.forClass(List.class);
+		verify(alertaRepository).saveAll(captor.capture());
+		List<TipoAlerta> tipos = new ArrayList<>();
+		captor.getValue().forEach(a -> tipos.add(a.getTipo()));
+		return tipos;
+	}
+}
@@ -0,0 +1,86 @@
+package com.bienestaranimal.app.service;
+
+import com.bienestaranimal.app.model.Animal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AnimalSearchIndexTest {
+
+	private AnimalSearchIndex index;
+
+	@BeforeEach
+	void setUp() {
+		index = new AnimalSearchIndex(null);
+		index.actualizar(animal(1L, "Águila Imperial Ibérica Individual", "Águila Imperial Ibérica", null));
+		index.actualizar(animal(2L, "Búho Real Individual", "Búho Real", "Ave nocturna"));
+		index.actualizar(animal(3L, "Ñandú Individual", "Ñandú", null));
+		index.actualizar(animal(4L, "Lince Ibérico Individual", "Lince Ibérico", "Cría en cautividad del águila"));
+	}
+
+	@Test
+	void matchesIgnoringAccents() {
+		assertThat(index.buscar("aguila")).first().isEqualTo(1L);
+		assertThat(index.buscar("buho")).containsExactly(2L);
+		assertThat(index.buscar("nandu")).containsExactly(3L);
+	}
+
+	@Test
+	void ranksNameMatchesAboveNotes() {
+		assertThat(index.buscar("águila")).containsExactly(1L, 4L);
+	}
+
+	@Test
+	void toleratesTypos() {
+		assertThat(index.buscar("lynce iberico")).first().isEqualTo(4L);
+	}
+
+	@Test
+	void followsUpdatesAndDeletes() {
+		index.actualizar(animal(2L, "Mochuelo", "Mochuelo común", null));
+		assertThat(index.buscar("buho")).isEmpty();
+		assertThat(index.buscar("mochuelo")).containsExactly(2L);
+
+		index.eliminar(2L);
+		assertThat(index.buscar("mochuelo")).isEmpty();
+	}
+
+	@Test
+	void appliesChangesOnlyAfterCommit() {
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			index.actualizar(animal(5L, "Tortuga Mora Individual", "Tortuga Mora", null));
+			index.eliminar(2L);
+			assertThat(index.buscar("tortuga")).isEmpty();
+			assertThat(index.buscar("buho")).containsExactly(2L);
+
+			TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+		assertThat(index.buscar("tortuga")).containsExactly(5L);
+		assertThat(index.buscar("buho")).isEmpty();
+	}
+
+	@Test
+	void ignoresChangesFromRolledBackTransactions() {
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			index.actualizar(animal(5L, "Tortuga Mora Individual", "Tortuga Mora", null));
+			index.eliminar(2L);
+			TransactionSynchronizationManager.getSynchronizations()
+					.forEach(t -> t.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+		assertThat(index.buscar("tortuga")).isEmpty();
+		assertThat(index.buscar("buho")).containsExactly(2L);
+	}
+
+	private static Animal animal(Long id, String nombre, String especie, String notas) {
+		return Animal.builder().id(id).nombre(nombre).especie(especie).notas(notas).build();
+	}
+}
@@ -0,0 +1,35 @@
+package com.bienestaranimal.app.service;
+
+import com.bienestaranimal.app.repository.AlertaRepository;
+import com.bienestaranimal.app.repository.AnimalRepository;
+import com.bienestaranimal.app.repository.EvaluacionRepository;
+import com.bienestaranimal.app.repository.RespuestaPreguntaRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class AnimalServiceTest {
+
+	private final AnimalService service = new AnimalService(mock(AnimalRepository.class),
+			mock(EvaluacionRepository.class), mock(RespuestaPreguntaRepository.class), mock(AlertaRepository.class),
+			mock(EvaluacionRollupService.class), mock(TombstoneService.class), mock(DashboardService.class),
+			mock(AnimalSearchIndex.class));
+
+	@Test
+	void unknownSortFieldIsABadRequest() {
+		assertThatThrownBy(() -> service.findCatalogo(0, 20, "notas,desc", null))
+				.isInstanceOfSatisfying(ResponseStatusException.class,
+						e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+	}
+
+	@Test
+	void unknownFieldIsABadRequest() {
+		assertThatThrownBy(() -> service.findCatalogo(0, 20, null, "nombre,password"))
+				.isInstanceOfSatisfying(ResponseStatusException.class,
+						e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+	}
+}
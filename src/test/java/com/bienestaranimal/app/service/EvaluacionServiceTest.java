@@ -0,0 +1,104 @@
+package com.bienestaranimal.app.service;
+
+import com.bienestaranimal.app.model.Animal;
+import com.bienestaranimal.app.model.Evaluacion;
+import com.bienestaranimal.app.model.PreguntaEvaluacion;
+import com.bienestaranimal.app.model.RespuestaPregunta;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@Import({ EvaluacionService.class, VersionService.class })
+class EvaluacionServiceTest {
+
+	@Autowired
+	private EvaluacionService evaluacionService;
+
+	@Autowired
+	private VersionService versionService;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@MockitoBean
+	private PuntuacionCalculator puntuacionCalculator;
+
+	@MockitoBean
+	private EvaluacionRollupService rollupService;
+
+	@MockitoBean
+	private TombstoneService tombstoneService;
+
+	@MockitoBean
+	private DashboardService dashboardService;
+
+	@Test
+	void editingOnlyAnAnswerChangesTheEtag() {
+		Long id = persistEvaluacion();
+		String antes = versionService.evaluacion(id);
+
+		// El cliente devuelve la evaluación tal cual la leyó, con un comentario distinto
+		Evaluacion editada = evaluacionService.findDetalleById(id);
+		entityManager.clear();
+		editada.getRespuestasDetalladas().get(0).setComentario("Cojea de la pata trasera");
+		evaluacionService.save(editada);
+		entityManager.flush();
+		entityManager.clear();
+
+		assertThat(versionService.evaluacion(id)).isNotEqualTo(antes);
+		assertThat(evaluacionService.findDetalleById(id).getRespuestasDetalladas().get(0).getComentario())
+				.isEqualTo("Cojea de la pata trasera");
+	}
+
+	@Test
+	void malformedCursorIsABadRequest() {
+		assertThatThrownBy(() -> evaluacionService.findResumen("no-es-un-cursor", 20))
+				.isInstanceOfSatisfying(ResponseStatusException.class,
+						e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+	}
+
+	private Long persistEvaluacion() {
+		Animal animal = Animal.builder()
+				.nombre("Lince")
+				.especie("Lince Ibérico")
+				.fechaNacimiento(LocalDate.of(2020, 1, 1))
+				.build();
+		entityManager.persist(animal);
+		PreguntaEvaluacion pregunta = PreguntaEvaluacion.builder().texto("Marcha").categoria("SALUD").build();
+		entityManager.persist(pregunta);
+
+		Evaluacion e = Evaluacion.builder()
+				.animal(animal)
+				.fechaHora(LocalDateTime.of(2025, 6, 1, 10, 0))
+				.puntuacionGlobal(50)
+				.respuestasDetalladas(new ArrayList<>())
+				.build();
+		e.getRespuestasDetalladas().add(RespuestaPregunta.builder()
+				.evaluacion(e)
+				.pregunta(pregunta)
+				.seleccion("B")
+				.puntos(50)
+				.build());
+		entityManager.persist(e);
+		entityManager.flush();
+		// Marca antigua para que el cambio no dependa de la resolución del reloj
+		entityManager.createQuery("update Evaluacion e set e.updatedAt = :t")
+				.setParameter("t", LocalDateTime.of(2025, 6, 1, 10, 0))
+				.executeUpdate();
+		entityManager.clear();
+		return e.getId();
+	}
+}
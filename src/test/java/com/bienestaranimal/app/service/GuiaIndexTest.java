@@ -0,0 +1,66 @@
+package com.bienestaranimal.app.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GuiaIndexTest {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void readsPageCountFromPageTreeRoot() throws Exception {
+		Path pdf = dir.resolve("a.pdf");
+		Files.writeString(pdf, "%PDF-1.4\n1 0 obj\n<< /Type /Pages /Kids [2 0 R 3 0 R] /Count 12 >>\nendobj\n"
+				+ "2 0 obj\n<< /Count 5 /Type /Pages /Parent 1 0 R >>\nendobj\n", StandardCharsets.ISO_8859_1);
+
+		assertThat(GuiaIndex.contarPaginas(pdf)).isEqualTo(12);
+	}
+
+	@Test
+	void fallsBackToCountingPageObjects() throws Exception {
+		Path pdf = dir.resolve("b.pdf");
+		Files.writeString(pdf, "%PDF-1.5\n4 0 obj\n<< /Type /Page /Parent 1 0 R >>\nendobj\n"
+				+ "5 0 obj\n<</Type/Page/Parent 1 0 R>>\nendobj\n", StandardCharsets.ISO_8859_1);
+
+		assertThat(GuiaIndex.contarPaginas(pdf)).isEqualTo(2);
+	}
+
+	// La carpeta no existe al arrancar: se empieza a vigilar cuando aparece
+	@Test
+	void startsWatchingFolderCreatedAfterBoot() throws Exception {
+		Path guias = dir.resolve("guias");
+		GuiaIndex index = new GuiaIndex(JsonMapper.builder().build(), guias);
+		index.vigilar();
+		try {
+			assertThat(index.getGuias()).isEmpty();
+
+			Files.createDirectory(guias);
+			Files.writeString(guias.resolve("Lince_iberico.pdf"), "%PDF-1.4\n<< /Type /Pages /Count 3 >>\n",
+					StandardCharsets.ISO_8859_1);
+
+			long limite = System.currentTimeMillis() + 10_000;
+			while (index.getGuias().isEmpty() && System.currentTimeMillis() < limite) {
+				Thread.sleep(50);
+			}
+			assertThat(index.getGuias()).singleElement()
+					.satisfies(g -> assertThat(g.getPages()).isEqualTo(3));
+			assertThat(new String(index.getListado().json(), StandardCharsets.UTF_8)).contains("Lince iberico");
+		} finally {
+			index.detener();
+		}
+	}
+
+	@Test
+	void beautifiesTitles() {
+		assertThat(GuiaIndex.beautifyTitle("EAZA_BPG_Mangabey_NV_d9bd24bf84.pdf")).isEqualTo("EAZA BPG Mangabey NV");
+		assertThat(GuiaIndex.beautifyTitle("otter-care_manual2.pdf")).isEqualTo("otter care manual2");
+	}
+}
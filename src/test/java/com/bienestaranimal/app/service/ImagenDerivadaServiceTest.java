@@ -0,0 +1,117 @@
+package com.bienestaranimal.app.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ImagenDerivadaServiceTest {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void generatesOnlyDownscaledVariants() throws Exception {
+		FileStorageService storage = mock(FileStorageService.class);
+		when(storage.rutaOriginal("abc", ".jpg")).thenReturn(dir.resolve("abc.jpg"));
+		when(storage.rutaVariante(eq("abc"), eq(".jpg"), anyInt()))
+				.thenAnswer(inv -> dir.resolve("abc-w" + inv.getArgument(2) + ".jpg"));
+		ImageIO.write(new BufferedImage(800, 600, BufferedImage.TYPE_INT_RGB), "jpeg", dir.resolve("abc.jpg").toFile());
+
+		new ImagenDerivadaService(storage).generar("abc", ".jpg");
+
+		BufferedImage miniatura = ImageIO.read(dir.resolve("abc-w320.jpg").toFile());
+		assertThat(miniatura.getWidth()).isEqualTo(320);
+		assertThat(miniatura.getHeight()).isEqualTo(240);
+		assertThat(dir.resolve("abc-w1024.jpg")).doesNotExist();
+	}
+
+	@Test
+	void scalesToExactTargetSize() {
+		BufferedImage origen = new BufferedImage(4032, 3024, BufferedImage.TYPE_INT_RGB);
+
+		BufferedImage escalada = ImagenDerivadaService.escalar(origen, 1024, false);
+
+		assertThat(escalada.getWidth()).isEqualTo(1024);
+		assertThat(escalada.getHeight()).isEqualTo(768);
+	}
+
+	// Foto de móvil típica: sensor apaisado (800x400, mitad izquierda roja) con EXIF Orientation=6,
+	// es decir, se ve girada 90° a la derecha: vertical, con el rojo arriba
+	@Test
+	void appliesExifOrientationBeforeScaling() throws Exception {
+		BufferedImage sensor = new BufferedImage(800, 400, BufferedImage.TYPE_INT_RGB);
+		Graphics2D g = sensor.createGraphics();
+		g.setColor(Color.RED);
+		g.fillRect(0, 0, 400, 400);
+		g.setColor(Color.BLUE);
+		g.fillRect(400, 0, 400, 400);
+		g.dispose();
+		Path original = dir.resolve("foto.jpg");
+		Files.write(original, conOrientacion(sensor, 6));
+		assertThat(ImagenDerivadaService.leerOrientacion(original)).isEqualTo(6);
+
+		FileStorageService storage = mock(FileStorageService.class);
+		when(storage.rutaOriginal("foto", ".jpg")).thenReturn(original);
+		when(storage.rutaVariante(eq("foto"), eq(".jpg"), anyInt()))
+				.thenAnswer(inv -> dir.resolve("foto-w" + inv.getArgument(2) + ".jpg"));
+
+		new ImagenDerivadaService(storage).generar("foto", ".jpg");
+
+		BufferedImage miniatura = ImageIO.read(dir.resolve("foto-w320.jpg").toFile());
+		assertThat(miniatura.getWidth()).isEqualTo(320);
+		assertThat(miniatura.getHeight()).isEqualTo(640);
+		assertThat(new Color(miniatura.getRGB(160, 100)).getRed()).isGreaterThan(200);
+		assertThat(new Color(miniatura.getRGB(160, 540)).getBlue()).isGreaterThan(200);
+	}
+
+	@Test
+	void orientsEveryExifValue() {
+		BufferedImage img = new BufferedImage(3, 2, BufferedImage.TYPE_INT_RGB);
+		img.setRGB(0, 0, 0xFF0000);
+
+		// Dónde acaba el píxel superior izquierdo original en cada orientación
+		assertThat(ImagenDerivadaService.orientar(img, 2).getRGB(2, 0) & 0xFFFFFF).isEqualTo(0xFF0000);
+		assertThat(ImagenDerivadaService.orientar(img, 3).getRGB(2, 1) & 0xFFFFFF).isEqualTo(0xFF0000);
+		assertThat(ImagenDerivadaService.orientar(img, 4).getRGB(0, 1) & 0xFFFFFF).isEqualTo(0xFF0000);
+		assertThat(ImagenDerivadaService.orientar(img, 5).getRGB(0, 0) & 0xFFFFFF).isEqualTo(0xFF0000);
+		assertThat(ImagenDerivadaService.orientar(img, 6).getRGB(1, 0) & 0xFFFFFF).isEqualTo(0xFF0000);
+		assertThat(ImagenDerivadaService.orientar(img, 7).getRGB(1, 2) & 0xFFFFFF).isEqualTo(0xFF0000);
+		assertThat(ImagenDerivadaService.orientar(img, 8).getRGB(0, 2) & 0xFFFFFF).isEqualTo(0xFF0000);
+	}
+
+	// JPEG con un segmento APP1/EXIF mínimo (IFD0 con la etiqueta Orientation) tras el SOI
+	private static byte[] conOrientacion(BufferedImage imagen, int orientacion) throws Exception {
+		ByteArrayOutputStream jpeg = new ByteArrayOutputStream();
+		ImageIO.write(imagen, "jpeg", jpeg);
+		byte[] datos = jpeg.toByteArray();
+
+		byte[] exif = {
+				'E', 'x', 'i', 'f', 0, 0,
+				'M', 'M', 0, 42, 0, 0, 0, 8,
+				0, 1,
+				0x01, 0x12, 0, 3, 0, 0, 0, 1, 0, (byte) orientacion, 0, 0,
+				0, 0, 0, 0 };
+		ByteArrayOutputStream salida = new ByteArrayOutputStream();
+		salida.write(datos, 0, 2);
+		salida.write(0xFF);
+		salida.write(0xE1);
+		salida.write((exif.length + 2) >> 8);
+		salida.write((exif.length + 2) & 0xFF);
+		salida.write(exif);
+		salida.write(datos, 2, datos.length - 2);
+		return salida.toByteArray();
+	}
+}
@@ -0,0 +1,72 @@
+package com.bienestaranimal.app.service;
+
+import com.bienestaranimal.app.dto.SyncSubidaResultadoDTO;
+import com.bienestaranimal.app.model.Evaluacion;
+import com.bienestaranimal.app.repository.AnimalRepository;
+import com.bienestaranimal.app.repository.EvaluacionRepository;
+import com.bienestaranimal.app.repository.PreguntaRepository;
+import com.bienestaranimal.app.repository.TombstoneRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SyncServiceTest {
+
+	private final EvaluacionRepository evaluacionRepository = mock(EvaluacionRepository.class);
+	private final EvaluacionService evaluacionService = mock(EvaluacionService.class);
+	private final SyncService service = new SyncService(mock(AnimalRepository.class), evaluacionRepository,
+			mock(PreguntaRepository.class), mock(TombstoneRepository.class), evaluacionService,
+			mock(AnimalService.class), mock(PlatformTransactionManager.class));
+
+	@Test
+	void ignoresClientSuppliedId() {
+		when(evaluacionRepository.findIdByClientId("a")).thenReturn(Optional.empty());
+		when(evaluacionService.save(any())).thenAnswer(inv -> {
+			Evaluacion e = inv.getArgument(0);
+			assertThat(e.getId()).isNull();
+			e.setId(99L);
+			return e;
+		});
+
+		List<SyncSubidaResultadoDTO> r = service.subirEvaluaciones(
+				List.of(Evaluacion.builder().id(7L).clientId("a").build()));
+
+		assertThat(r).extracting(SyncSubidaResultadoDTO::getId).containsExactly(99L);
+	}
+
+	// Dos subidas simultáneas con el mismo clientId: la que pierde choca con la restricción
+	// única y, al repetir el lote, encuentra la evaluación de la otra
+	@Test
+	void concurrentDuplicateClientIdReturnsExistingEvaluation() {
+		when(evaluacionRepository.findIdByClientId("a")).thenReturn(Optional.empty(), Optional.of(42L));
+		when(evaluacionService.save(any())).thenThrow(new DataIntegrityViolationException("Duplicate entry 'a'"));
+
+		List<SyncSubidaResultadoDTO> r = service.subirEvaluaciones(List.of(Evaluacion.builder().clientId("a").build()));
+
+		assertThat(r).singleElement().satisfies(res -> {
+			assertThat(res.getId()).isEqualTo(42L);
+			assertThat(res.isDuplicada()).isTrue();
+		});
+		verify(evaluacionService, times(1)).save(any());
+	}
+
+	@Test
+	void otherIntegrityErrorsAreNotRetriedWithoutClientId() {
+		when(evaluacionService.save(any())).thenThrow(new DataIntegrityViolationException("FK"));
+
+		assertThatThrownBy(() -> service.subirEvaluaciones(List.of(Evaluacion.builder().build())))
+				.isInstanceOf(DataIntegrityViolationException.class);
+		verify(evaluacionService, times(1)).save(any());
+	}
+}